@@ -0,0 +1,61 @@
+package com.example.school.benchmark;
+
+import com.example.school.entity.User;
+import com.example.school.security.JwtAuthFilter;
+import com.example.school.security.JwtService;
+import com.example.school.security.JwtTokenCache;
+import com.example.school.security.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean trustTokenClaims;
+
+    private JwtAuthFilter filter;
+    private String authHeader;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(new JwtTokenCache(10_000));
+        User user = User.builder().id(1L).username("student1").password("").role("STUDENT").build();
+        authHeader = "Bearer " + jwtService.generateToken(user);
+
+        // Stands in for the database lookup; measures only the filter's own work
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername("student1").password("").authorities("STUDENT").build();
+        UserDetailsService userDetailsService = username -> userDetails;
+
+        filter = new JwtAuthFilter(jwtService, userDetailsService, new TokenRevocationService(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "trustTokenClaims", trustTokenClaims);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/me");
+        request.addHeader("Authorization", authHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
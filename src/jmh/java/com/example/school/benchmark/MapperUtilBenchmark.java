@@ -0,0 +1,44 @@
+package com.example.school.benchmark;
+
+import com.example.school.dto.StudentResponse;
+import com.example.school.entity.Course;
+import com.example.school.entity.Student;
+import com.example.school.entity.User;
+import com.example.school.util.MapperUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperUtilBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int courseCount;
+
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        Set<Course> courses = new LinkedHashSet<>();
+        for (long i = 1; i <= courseCount; i++) {
+            courses.add(Course.builder().id(i).title("Course " + i).description("Description " + i).build());
+        }
+        student = Student.builder()
+                .id(1L)
+                .owner(User.builder().id(1L).username("student1").build())
+                .courses(courses)
+                .build();
+    }
+
+    @Benchmark
+    public StudentResponse toStudentResponse() {
+        return MapperUtil.toStudentResponse(student);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.school.benchmark;
+
+import com.example.school.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordValidationBenchmark {
+
+    @Param({"Sh0rt", "ValidPassw0rd", "alllowercasebutverylongpassword"})
+    private String password;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        // isValidPassword touches none of the collaborators
+        userService = new UserService(null, null, null);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return userService.isValidPassword(password);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.school.cache;
+
+/**
+ * Broadcasts cache invalidations to every running instance, including this one.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(String cacheName);
+
+    void subscribe(String cacheName, Runnable onInvalidate);
+}
@@ -0,0 +1,103 @@
+package com.example.school.cache;
+
+import com.example.school.dto.CourseResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the full course catalog, holding the DTOs, their serialized JSON and the
+ * catalog version they were read at.
+ */
+@Component
+public class CourseCatalogCache {
+
+    public static final String CACHE_NAME = "courseCatalog";
+    private static final String ALL_COURSES = "all";
+
+    private final Cache<String, Snapshot> cache;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationBus invalidationBus;
+
+    public CourseCatalogCache(ObjectMapper objectMapper,
+                              CacheInvalidationBus invalidationBus,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.course-catalog.max-size:16}") long maxSize,
+                              @Value("${cache.course-catalog.ttl:5m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.invalidationBus = invalidationBus;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        invalidationBus.subscribe(CACHE_NAME, cache::invalidateAll);
+    }
+
+    public Snapshot get(Supplier<Snapshot> loader) {
+        return cache.get(ALL_COURSES, key -> loader.get());
+    }
+
+    /**
+     * The cached catalog, or null when it has to be loaded first.
+     */
+    public Snapshot getIfPresent() {
+        return cache.getIfPresent(ALL_COURSES);
+    }
+
+    /**
+     * Builds a snapshot for {@link #get}; the version must have been read no later than the courses.
+     */
+    public Snapshot snapshot(List<CourseResponse> courses, long version, Instant lastModified) {
+        try {
+            return new Snapshot(courses, objectMapper.writeValueAsBytes(courses), version, lastModified);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize course catalog", e);
+        }
+    }
+
+    /**
+     * Drops the catalog on every node, after the surrounding transaction commits if there is one.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow();
+                }
+            });
+        } else {
+            invalidateNow();
+        }
+    }
+
+    private void invalidateNow() {
+        cache.invalidateAll();
+        invalidationBus.publish(CACHE_NAME);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+        private final List<CourseResponse> courses;
+        private final byte[] json;
+        private final long version;
+        private final Instant lastModified;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.school.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single-node stand-in for {@link PostgresCacheInvalidationBus}; delivers invalidations in-process.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cacheName) {
+        listeners.getOrDefault(cacheName, List.of()).forEach(Runnable::run);
+    }
+
+    @Override
+    public void subscribe(String cacheName, Runnable onInvalidate) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(onInvalidate);
+    }
+}
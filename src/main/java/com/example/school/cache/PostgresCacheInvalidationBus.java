@@ -0,0 +1,150 @@
+package com.example.school.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Multi-node invalidation over Postgres LISTEN/NOTIFY. The listener uses its own connection outside the
+ * Hikari pool, since it holds it for the lifetime of the application; that connection is touched by the
+ * listener thread only. Notifications are sent through the pool.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.mode", havingValue = "postgres")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresCacheInvalidationBus.class);
+    private static final String CHANNEL = "school_cache_invalidation";
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    private volatile Connection connection;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresCacheInvalidationBus(DataSourceProperties dataSourceProperties,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        // Publishing runs from afterCommit callbacks, where the finished transaction's connection is still
+        // bound; a new transaction gets a fresh connection, and NOTIFY is delivered when it commits
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        closeQuietly();
+    }
+
+    @Override
+    public void publish(String cacheName) {
+        try {
+            notifyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, CHANNEL, cacheName));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to TTL expiry; the local copy is still dropped
+            logger.error("Failed to publish invalidation for cache: {}", cacheName, e);
+            dispatch(cacheName);
+        }
+    }
+
+    @Override
+    public void subscribe(String cacheName, Runnable onInvalidate) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(onInvalidate);
+    }
+
+    private void listen() {
+        while (running) {
+            try {
+                PGConnection pgConnection = connect().unwrap(PGConnection.class);
+                PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener lost its connection, reconnecting", e);
+                closeQuietly();
+                // Anything may have changed while we were disconnected
+                listeners.keySet().forEach(this::dispatch);
+                try {
+                    Thread.sleep(POLL_TIMEOUT_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String cacheName) {
+        listeners.getOrDefault(cacheName, List.of()).forEach(Runnable::run);
+    }
+
+    private synchronized Connection connect() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            Connection newConnection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword());
+            newConnection.setAutoCommit(true);
+            try (Statement statement = newConnection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            }
+            connection = newConnection;
+        }
+        return connection;
+    }
+
+    private synchronized void closeQuietly() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // already broken
+            }
+            connection = null;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.example.school.security.JwtAuthFilter;
 import com.example.school.security.CustomAccessDeniedHandler;
 import com.example.school.security.CustomAuthenticationEntryPoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -43,6 +44,9 @@ public class SecurityConfig {
                         .requestMatchers(mvc.pattern("/v3/api-docs.yaml")).permitAll()
                         .requestMatchers(mvc.pattern("/swagger-resources/**")).permitAll()
                         .requestMatchers(mvc.pattern("/webjars/**")).permitAll()
+                        // Actuator endpoints only exist on management.server.port, which is not public
+                        .requestMatchers(mvc.pattern("/actuator/health")).permitAll()
+                        .requestMatchers(mvc.pattern("/actuator/prometheus")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -61,8 +65,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -4,9 +4,12 @@ import com.example.school.dto.AuthRequest;
 import com.example.school.entity.User;
 import com.example.school.exception.DuplicateUsernameException;
 import com.example.school.exception.InvalidPasswordException;
+import com.example.school.exception.TooManyRequestsException;
 import com.example.school.security.JwtService;
+import com.example.school.security.TokenRevocationService;
 import com.example.school.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.security.Principal;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -21,6 +26,7 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody AuthRequest request) {
@@ -31,6 +37,8 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (InvalidPasswordException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         }
     }
 
@@ -39,8 +47,25 @@ public class AuthController {
         try {
             User user = userService.authenticateUser(request);
             return ResponseEntity.ok(jwtService.generateToken(user));
+        } catch (TooManyRequestsException e) {
+            return tooManyRequests(e);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Not logged in");
+        }
+        tokenRevocationService.revokeAllTokens(principal.getName());
+        return ResponseEntity.ok("Logged out successfully");
+    }
+
+    private ResponseEntity<?> tooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
@@ -1,12 +1,22 @@
 package com.example.school.controller;
 
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.CacheValidators;
 import com.example.school.dto.CourseRequest;
 import com.example.school.dto.CourseResponse;
+import com.example.school.dto.EnrollmentStatsResponse;
+import com.example.school.dto.PageResponse;
+import com.example.school.dto.RosterEntryResponse;
 import com.example.school.service.CourseService;
+import com.example.school.util.ETagUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,8 +35,56 @@ public class CourseController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
-    public ResponseEntity<List<CourseResponse>> getAllCourses() {
-        return ResponseEntity.ok(courseService.getAllCourses());
+    public ResponseEntity<byte[]> getAllCourses(WebRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, ETagUtil.REVALIDATE);
+        // Checked before the catalog is loaded, so current clients get their 304 even while the cache is cold
+        CacheValidators current = courseService.getCatalogValidators();
+        if (request.checkNotModified(current.getETag(), current.getLastModified().toEpochMilli())) {
+            return null;
+        }
+
+        // Served pre-serialized from the catalog cache
+        CourseCatalogCache.Snapshot catalog = courseService.getCatalog();
+        String eTag = ETagUtil.strong("catalog", catalog.getVersion());
+        if (!eTag.equals(current.getETag())) {
+            // The catalog changed in between; tag the body with the version it was read at
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, catalog.getLastModified().toEpochMilli());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(catalog.getJson());
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
+    public ResponseEntity<PageResponse<CourseResponse>> getCoursesPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.getCoursesPage(after, limit));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT')")
+    public ResponseEntity<List<CourseResponse>> searchCourses(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.searchCourses(q, limit));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EnrollmentStatsResponse> getEnrollmentStats() {
+        return ResponseEntity.ok(courseService.getEnrollmentStats());
+    }
+
+    @GetMapping("/{id}/students")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<RosterEntryResponse>> getRoster(
+            @PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseService.getRoster(id, after, limit));
     }
 
     @DeleteMapping("/{id}")
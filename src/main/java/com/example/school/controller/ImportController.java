@@ -0,0 +1,39 @@
+package com.example.school.controller;
+
+import com.example.school.dto.ImportJobResponse;
+import com.example.school.entity.ImportKind;
+import com.example.school.service.ImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/imports")
+@RequiredArgsConstructor
+public class ImportController {
+
+    private final ImportService importService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJobResponse> startImport(@RequestParam ImportKind kind,
+                                                         @RequestParam MultipartFile file) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.startImport(kind, file));
+    }
+
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJobResponse> resumeImport(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resumeImport(id));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportJobResponse> getImport(@PathVariable Long id) {
+        return ResponseEntity.ok(importService.getImport(id));
+    }
+}
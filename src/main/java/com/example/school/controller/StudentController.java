@@ -1,11 +1,21 @@
 package com.example.school.controller;
 
+import com.example.school.dto.BulkEnrollmentResponse;
+import com.example.school.dto.CacheValidators;
+import com.example.school.dto.EnrollmentRequest;
+import com.example.school.dto.PageResponse;
 import com.example.school.dto.StudentResponse;
 import com.example.school.service.StudentService;
+import com.example.school.util.ETagUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
 import java.util.List;
@@ -23,6 +33,23 @@ public class StudentController {
         return ResponseEntity.ok(studentService.getAllStudents());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PageResponse<StudentResponse>> getStudentsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(studentService.getStudentsPage(after, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportStudents() {
+        StreamingResponseBody body = studentService::exportStudents;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<StudentResponse> getStudentById(@PathVariable Long id) {
@@ -31,7 +58,14 @@ public class StudentController {
 
     @GetMapping("/me")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<StudentResponse> getStudentByToken(Principal principal) {
+    public ResponseEntity<StudentResponse> getStudentByToken(Principal principal, WebRequest request,
+                                                             HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, ETagUtil.REVALIDATE);
+        // Only the version columns are read when the client's copy is still current
+        CacheValidators validators = studentService.getStudentValidators(principal.getName());
+        if (request.checkNotModified(validators.getETag(), validators.getLastModified().toEpochMilli())) {
+            return null;
+        }
         return ResponseEntity.ok(studentService.getStudentByUsername(principal.getName()));
     }
 
@@ -48,6 +82,12 @@ public class StudentController {
         return ResponseEntity.ok(studentService.enrollCoursesByAdmin(id, courseIds));
     }
 
+    @PostMapping("/courses/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkEnrollmentResponse> bulkEnrollCoursesByAdmin(@RequestBody List<EnrollmentRequest> requests) {
+        return ResponseEntity.ok(studentService.bulkEnrollCoursesByAdmin(requests));
+    }
+
     @DeleteMapping("/me/courses/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<StudentResponse> removeCourseForStudent(
@@ -0,0 +1,38 @@
+package com.example.school.controller;
+
+import com.example.school.dto.WaitlistEntryResponse;
+import com.example.school.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/students/me/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<List<WaitlistEntryResponse>> getWaitlist(Principal principal) {
+        return ResponseEntity.ok(waitlistService.getWaitlist(principal.getName()));
+    }
+
+    @PostMapping("/{courseId}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(@PathVariable Long courseId, Principal principal) {
+        return ResponseEntity.ok(waitlistService.joinWaitlist(principal.getName(), courseId));
+    }
+
+    @DeleteMapping("/{courseId}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable Long courseId, Principal principal) {
+        waitlistService.leaveWaitlist(principal.getName(), courseId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkEnrollmentResponse {
+    private int succeeded;
+    private int failed;
+    private List<EnrollmentResult> results;
+}
@@ -0,0 +1,15 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * ETag and Last-Modified of a resource, read without loading the resource itself.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheValidators {
+    private String eTag;
+    private Instant lastModified;
+}
@@ -11,4 +11,5 @@ public class CourseRequest {
     private Long id;
     private String title;
     private String description;
+    private Integer capacity;
 }
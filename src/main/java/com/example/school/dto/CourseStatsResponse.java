@@ -0,0 +1,15 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseStatsResponse {
+    private Long courseId;
+    private String title;
+    private Integer capacity;
+    private int enrolled;
+}
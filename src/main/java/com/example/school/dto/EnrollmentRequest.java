@@ -0,0 +1,15 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnrollmentRequest {
+    private Long studentId;
+    private List<Long> courseIds;
+}
@@ -0,0 +1,15 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnrollmentResult {
+    private Long studentId;
+    private boolean success;
+    private int enrolled;
+    private String message;
+}
@@ -0,0 +1,15 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EnrollmentStatsResponse {
+    private long totalEnrollments;
+    private List<CourseStatsResponse> courses;
+}
@@ -0,0 +1,25 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobResponse {
+    private Long id;
+    private String kind;
+    private String status;
+    private String fileName;
+    private long processedRows;
+    private long succeeded;
+    private long failed;
+    private String message;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private List<ImportRowErrorDTO> errors;
+}
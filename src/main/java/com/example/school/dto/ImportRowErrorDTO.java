@@ -0,0 +1,13 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRowErrorDTO {
+    private long row;
+    private String message;
+}
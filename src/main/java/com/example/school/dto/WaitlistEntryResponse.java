@@ -0,0 +1,16 @@
+package com.example.school.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryResponse {
+    private Long courseId;
+    private long position;
+    private Instant joinedAt;
+}
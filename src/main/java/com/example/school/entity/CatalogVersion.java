@@ -0,0 +1,29 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Single-row counter bumped in the same transaction as every change to the course catalog.
+ * It backs the ETag and Last-Modified headers of {@code GET /api/courses}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class CatalogVersion {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
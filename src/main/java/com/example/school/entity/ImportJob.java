@@ -0,0 +1,50 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A bulk import and its checkpoint: {@code processedRows} data rows have been committed,
+ * so a resumed import skips exactly that many rows. While pending or running, the job is held by
+ * {@code ownerNode} until {@code leaseExpiresAt}; the owner keeps renewing the lease.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class ImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_job_seq")
+    @SequenceGenerator(name = "import_job_seq", sequenceName = "import_job_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportKind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImportStatus status;
+
+    private String fileName;
+
+    @Column(nullable = false)
+    private String storagePath;
+
+    private long processedRows;
+    private long succeeded;
+    private long failed;
+
+    private String message;
+
+    private String ownerNode;
+    private Instant leaseExpiresAt;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,6 @@
+package com.example.school.entity;
+
+public enum ImportKind {
+    STUDENTS,
+    COURSES
+}
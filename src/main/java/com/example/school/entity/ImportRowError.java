@@ -0,0 +1,25 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class ImportRowError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_row_error_seq")
+    @SequenceGenerator(name = "import_row_error_seq", sequenceName = "import_row_error_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobId;
+
+    private long rowNumber;
+
+    private String message;
+}
@@ -0,0 +1,9 @@
+package com.example.school.entity;
+
+public enum ImportStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
@@ -2,9 +2,13 @@ package com.example.school.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -15,9 +19,20 @@ import java.util.List;
 public class Student {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "student_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock and ETag source; the default fills rows that predate the column
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Last-Modified source; moves with every version change
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     private String name;
 
     private String ownerUsername;
@@ -30,8 +45,20 @@ public class Student {
     @JoinTable(
             name = "student_courses",
             joinColumns = @JoinColumn(name = "student_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id")
+            inverseJoinColumns = @JoinColumn(name = "course_id"),
+            uniqueConstraints = @UniqueConstraint(name = "uk_student_courses_student_course", columnNames = {"student_id", "course_id"}),
+            // Reverse lookup for course rosters; the unique constraint only covers student-first access
+            indexes = @Index(name = "idx_student_courses_course_student", columnList = "course_id, student_id")
     )
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student-courses")
     @Builder.Default
-    private List<Course> courses = new ArrayList<>();
+    private Set<Course> courses = new LinkedHashSet<>();
+
+    // Also runs when only the courses changed, since that bumps the version too
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A student waiting for a seat in a full course. Entries are served in (createdAt, id) order and
+ * deleted once promoted.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"courseId", "studentId"}))
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long courseId;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    // Ids come from pooled sequence blocks per node, so arrival order is taken from the timestamp
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package com.example.school.exception;
+
+public class CourseFullException extends RuntimeException {
+    public CourseFullException(String message) {
+        super(message);
+    }
+}
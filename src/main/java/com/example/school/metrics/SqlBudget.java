@@ -0,0 +1,27 @@
+package com.example.school.metrics;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-request SQL limits. Going over any of them is logged and counted; with
+ * {@code fail-on-violation} (meant for tests) the offending statement throws instead.
+ */
+@Getter
+@Component
+public class SqlBudget {
+
+    @Value("${sql.budget.max-statements:20}")
+    private int maxStatements;
+
+    // The same SQL text run this many times in one request is the signature of an N+1
+    @Value("${sql.budget.max-repeated-statements:5}")
+    private int maxRepeatedStatements;
+
+    @Value("${sql.budget.max-entities-loaded:1000}")
+    private int maxEntitiesLoaded;
+
+    @Value("${sql.budget.fail-on-violation:false}")
+    private boolean failOnViolation;
+}
@@ -0,0 +1,100 @@
+package com.example.school.metrics;
+
+import com.example.school.exception.SqlBudgetExceededException;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the SQL statements Hibernate prepares and the entities it loads on the current thread
+ * while a request is in flight. Tracking is started and finished by {@link SqlStatementMetricsFilter},
+ * so background work (imports, exports) is never counted.
+ */
+public class SqlStatementCounter implements StatementInspector, PostLoadEventListener {
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlBudget budget;
+
+    public SqlStatementCounter(SqlBudget budget) {
+        this.budget = budget;
+    }
+
+    public static void begin() {
+        CURRENT.set(new RequestStats());
+    }
+
+    public static RequestStats finish() {
+        RequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            int repeats = stats.repeats.merge(sql, 1, Integer::sum);
+            stats.maxRepeats = Math.max(stats.maxRepeats, repeats);
+
+            if (budget.isFailOnViolation()) {
+                if (stats.statements > budget.getMaxStatements()) {
+                    throw new SqlBudgetExceededException("Request exceeded SQL budget of "
+                            + budget.getMaxStatements() + " statements");
+                }
+                if (repeats > budget.getMaxRepeatedStatements()) {
+                    throw new SqlBudgetExceededException("Possible N+1: statement repeated " + repeats + " times: " + sql);
+                }
+            }
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+            if (budget.isFailOnViolation() && stats.entitiesLoaded > budget.getMaxEntitiesLoaded()) {
+                throw new SqlBudgetExceededException("Request exceeded budget of "
+                        + budget.getMaxEntitiesLoaded() + " loaded entities");
+            }
+        }
+    }
+
+    public static class RequestStats {
+        private final Map<String, Integer> repeats = new LinkedHashMap<>();
+        private int statements;
+        private int maxRepeats;
+        private int entitiesLoaded;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getMaxRepeats() {
+            return maxRepeats;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+
+        // In the order they were first prepared
+        public Set<String> getDistinctStatements() {
+            return repeats.keySet();
+        }
+
+        public String getMostRepeatedStatement() {
+            return repeats.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.school.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements and loaded entities each endpoint cost, tagged by its route
+ * template, and reports requests that go over the {@link SqlBudget}. Runs ahead of the security
+ * filter chain so the statements issued while authenticating the request are counted too.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudget budget;
+
+    // Keyed by method and route template, so both maps stay as small as the set of endpoints
+    private final Map<String, RouteMeters> routeMeters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> violationCounters = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.RequestStats stats = SqlStatementCounter.finish();
+            String route = routeOf(request);
+
+            RouteMeters meters = routeMeters.computeIfAbsent(request.getMethod() + " " + route,
+                    key -> registerRouteMeters(request.getMethod(), route));
+            meters.statements().record(stats.getStatements());
+            meters.entities().record(stats.getEntitiesLoaded());
+
+            reportViolations(request.getMethod(), route, stats);
+        }
+    }
+
+    private void reportViolations(String method, String route, SqlStatementCounter.RequestStats stats) {
+        if (stats.getStatements() > budget.getMaxStatements()) {
+            violation(method, route, "statements");
+            logger.warn("{} {} issued {} SQL statements (budget {})",
+                    method, route, stats.getStatements(), budget.getMaxStatements());
+        }
+        if (stats.getMaxRepeats() > budget.getMaxRepeatedStatements()) {
+            violation(method, route, "repeated_statement");
+            logger.warn("{} {} repeated one statement {} times, likely N+1: {}",
+                    method, route, stats.getMaxRepeats(), stats.getMostRepeatedStatement());
+        }
+        if (stats.getEntitiesLoaded() > budget.getMaxEntitiesLoaded()) {
+            violation(method, route, "entities");
+            logger.warn("{} {} loaded {} entities (budget {})",
+                    method, route, stats.getEntitiesLoaded(), budget.getMaxEntitiesLoaded());
+        }
+    }
+
+    private RouteMeters registerRouteMeters(String method, String route) {
+        DistributionSummary statements = DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements issued per request")
+                .tag("method", method)
+                .tag("uri", route)
+                .register(meterRegistry);
+        DistributionSummary entities = DistributionSummary.builder("http.server.requests.sql.entities")
+                .description("Entities loaded per request")
+                .tag("method", method)
+                .tag("uri", route)
+                .register(meterRegistry);
+        return new RouteMeters(statements, entities);
+    }
+
+    private void violation(String method, String route, String type) {
+        violationCounters.computeIfAbsent(method + " " + route + " " + type,
+                key -> Counter.builder("sql.budget.violations")
+                        .tag("method", method)
+                        .tag("uri", route)
+                        .tag("type", type)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    // Route templates keep the tag cardinality bounded, unlike raw paths
+    static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    private record RouteMeters(DistributionSummary statements, DistributionSummary entities) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.school.repository;
+
+import com.example.school.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    // Row-locks the counter until commit, so concurrent catalog changes get distinct versions
+    @Modifying
+    @Query("update CatalogVersion v set v.version = v.version + 1, v.updatedAt = :now where v.id = :id")
+    int increment(@Param("id") Long id, @Param("now") Instant now);
+}
@@ -1,8 +1,32 @@
 package com.example.school.repository;
 
 import com.example.school.entity.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long> {}
+public interface CourseRepository extends JpaRepository<Course, Long> {
+
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("select c.id from Course c order by c.id")
+    List<Long> findAllIds();
+
+    // Reads the maintained enrolled_count; never counts student_courses
+    @Query("select c.id as courseId, c.title as title, c.capacity as capacity, c.enrolledCount as enrolled " +
+            "from Course c order by c.id")
+    List<CourseStatsRow> findAllStats();
+
+    // Fallback for CourseSearchIndex while it is cold; query is a to_tsquery expression such as 'intro:* & java:*'
+    @Query(value = "select * from course c " +
+            "where to_tsvector('simple', coalesce(c.title, '') || ' ' || coalesce(c.description, '')) " +
+            "@@ to_tsquery('simple', :query) " +
+            "order by ts_rank(to_tsvector('simple', coalesce(c.title, '') || ' ' || coalesce(c.description, '')), " +
+            "to_tsquery('simple', :query)) desc, c.id limit :limit", nativeQuery = true)
+    List<Course> searchFullText(@Param("query") String query, @Param("limit") int limit);
+}
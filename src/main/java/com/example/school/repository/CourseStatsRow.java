@@ -0,0 +1,11 @@
+package com.example.school.repository;
+
+/**
+ * Enrollment counter of one course, as stored on the course row.
+ */
+public interface CourseStatsRow {
+    Long getCourseId();
+    String getTitle();
+    Integer getCapacity();
+    int getEnrolled();
+}
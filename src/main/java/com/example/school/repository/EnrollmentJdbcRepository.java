@@ -0,0 +1,242 @@
+package com.example.school.repository;
+
+import com.example.school.entity.Student;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Direct access to the student_courses join table for bulk operations that should not load entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EnrollmentJdbcRepository {
+
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    private static final String INSERT_ENROLLMENT =
+            "insert into student_courses (student_id, course_id) values (?, ?) on conflict do nothing";
+    private static final String STUDENT_COURSES_ROLE = Student.class.getName() + ".courses";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}")
+    private int batchSize;
+
+    public Map<Long, Set<Long>> findCourseIdsByStudentIds(Collection<Long> studentIds) {
+        Map<Long, Set<Long>> enrollments = new HashMap<>();
+        for (List<Long> chunk : chunk(studentIds)) {
+            namedJdbcTemplate.query(
+                    "select student_id, course_id from student_courses where student_id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    rs -> {
+                        enrollments.computeIfAbsent(rs.getLong("student_id"), id -> new HashSet<>())
+                                .add(rs.getLong("course_id"));
+                    });
+        }
+        return enrollments;
+    }
+
+    public Set<Long> findExistingStudentIds(Collection<Long> studentIds) {
+        return findExistingIds("student", studentIds);
+    }
+
+    public Set<Long> findExistingCourseIds(Collection<Long> courseIds) {
+        return findExistingIds("course", courseIds);
+    }
+
+    /**
+     * Takes one seat in each requested course for every student, all or nothing per student, and
+     * returns which students got all of their seats. Each seat is a single conditional update, so a
+     * course row is never read and then written; the row lock is held only until the caller commits.
+     * Call this as late as possible in the transaction to keep that window short. Seats of a capped
+     * course with a waitlist are left to the promotion worker, so nobody jumps the queue.
+     */
+    public boolean[] allocateSeats(List<? extends Collection<Long>> courseIdsPerStudent) {
+        List<long[]> requests = new ArrayList<>();
+        for (int i = 0; i < courseIdsPerStudent.size(); i++) {
+            for (Long courseId : new HashSet<>(courseIdsPerStudent.get(i))) {
+                requests.add(new long[]{i, courseId});
+            }
+        }
+        // Lock course rows in id order so concurrent allocations cannot deadlock; ties keep request order
+        requests.sort(Comparator.<long[]>comparingLong(request -> request[1])
+                .thenComparingLong(request -> request[0]));
+
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "update course set enrolled_count = enrolled_count + 1 " +
+                        "where id = ? and (capacity is null or enrolled_count < capacity " +
+                        "and not exists (select 1 from waitlist_entry w where w.course_id = course.id))",
+                requests,
+                batchSize,
+                (ps, request) -> ps.setLong(1, request[1]));
+
+        boolean[] granted = new boolean[courseIdsPerStudent.size()];
+        Arrays.fill(granted, true);
+        boolean[] taken = new boolean[requests.size()];
+        int k = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                taken[k] = count > 0;
+                if (!taken[k]) {
+                    granted[(int) requests.get(k)[0]] = false;
+                }
+                k++;
+            }
+        }
+
+        // Give back the seats of students who did not get every course they asked for
+        List<Long> released = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (taken[i] && !granted[(int) requests.get(i)[0]]) {
+                released.add(requests.get(i)[1]);
+            }
+        }
+        releaseSeats(released);
+        return granted;
+    }
+
+    /**
+     * Adds seats to a course whose row the caller already holds locked and whose free seats it counted.
+     */
+    public void takeSeats(long courseId, int seats) {
+        if (seats > 0) {
+            jdbcTemplate.update("update course set enrolled_count = enrolled_count + ? where id = ?", seats, courseId);
+        }
+    }
+
+    /**
+     * Frees one seat per entry, for enrollments that were removed.
+     */
+    public void releaseSeats(List<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        List<Long> ordered = courseIds.stream().sorted().toList();
+        jdbcTemplate.batchUpdate(
+                "update course set enrolled_count = enrolled_count - 1 where id = ? and enrolled_count > 0",
+                ordered,
+                batchSize,
+                (ps, courseId) -> ps.setLong(1, courseId));
+    }
+
+    /**
+     * Recounts one course's enrollments and corrects its enrolled_count, returning the correction
+     * applied. The course row is locked before counting, so seats taken by transactions that
+     * committed in between are counted too; a row locked by an ongoing enrollment is skipped
+     * rather than waited for, and is picked up by the next run. Must run inside a transaction.
+     */
+    public int reconcileEnrolledCount(long courseId) {
+        List<Integer> stored = jdbcTemplate.queryForList(
+                "select enrolled_count from course where id = ? for update skip locked", Integer.class, courseId);
+        if (stored.isEmpty()) {
+            return 0;
+        }
+        Integer actual = jdbcTemplate.queryForObject(
+                "select count(*) from student_courses where course_id = ?", Integer.class, courseId);
+        int drift = actual - stored.get(0);
+        if (drift != 0) {
+            jdbcTemplate.update("update course set enrolled_count = ? where id = ?", actual, courseId);
+        }
+        return drift;
+    }
+
+    /**
+     * Inserts (studentId, courseId) pairs in JDBC batches of {@code hibernate.jdbc.batch_size}.
+     * Seats for these pairs must already have been taken with {@link #allocateSeats}.
+     * These writes bypass Hibernate, so the affected students' versions are bumped here and their
+     * cached {@code Student.courses} collections are evicted once the surrounding transaction commits.
+     */
+    public void insertEnrollments(List<long[]> pairs) {
+        jdbcTemplate.batchUpdate(
+                INSERT_ENROLLMENT,
+                pairs,
+                batchSize,
+                (ps, pair) -> {
+                    ps.setLong(1, pair[0]);
+                    ps.setLong(2, pair[1]);
+                });
+        Set<Long> studentIds = pairs.stream().map(pair -> pair[0]).collect(Collectors.toSet());
+        bumpStudentVersions(studentIds);
+        evictCourseCollections(studentIds);
+    }
+
+    /**
+     * Inserts one pair and reports whether it was new. Seats are the caller's responsibility.
+     */
+    public boolean insertEnrollment(long studentId, long courseId) {
+        boolean inserted = jdbcTemplate.update(INSERT_ENROLLMENT, studentId, courseId) > 0;
+        if (inserted) {
+            bumpStudentVersions(Set.of(studentId));
+            evictCourseCollections(Set.of(studentId));
+        }
+        return inserted;
+    }
+
+    // Enrollment changes made through Hibernate bump Student.version; do the same for these
+    private void bumpStudentVersions(Set<Long> studentIds) {
+        for (List<Long> chunk : chunk(studentIds)) {
+            namedJdbcTemplate.update(
+                    "update student set version = version + 1, updated_at = now() at time zone 'utc' where id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk));
+        }
+    }
+
+    private void evictCourseCollections(Set<Long> studentIds) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        Runnable evict = () -> studentIds.forEach(id -> cache.evictCollectionData(STUDENT_COURSES_ROLE, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    private Set<Long> findExistingIds(String table, Collection<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : chunk(ids)) {
+            existing.addAll(namedJdbcTemplate.queryForList(
+                    "select id from " + table + " where id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    Long.class));
+        }
+        return existing;
+    }
+
+    private static List<List<Long>> chunk(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += IN_CLAUSE_CHUNK) {
+            chunks.add(all.subList(i, Math.min(i + IN_CLAUSE_CHUNK, all.size())));
+        }
+        return chunks;
+    }
+}
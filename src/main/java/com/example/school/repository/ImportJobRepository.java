@@ -0,0 +1,63 @@
+package com.example.school.repository;
+
+import com.example.school.entity.ImportJob;
+import com.example.school.entity.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    // Pending/running jobs whose owner has stopped renewing the lease (or never had one)
+    @Query("select j from ImportJob j where j.status in :statuses " +
+            "and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now)")
+    List<ImportJob> findExpired(@Param("statuses") Collection<ImportStatus> statuses, @Param("now") Instant now);
+
+    // Re-checks the lease so a heartbeat that lands first keeps the job alive
+    @Modifying
+    @Query("update ImportJob j set j.status = :interrupted, j.message = :message, j.updatedAt = :now " +
+            "where j.id = :id and j.status in :statuses and (j.leaseExpiresAt is null or j.leaseExpiresAt < :now)")
+    int interruptIfExpired(@Param("id") Long id,
+                           @Param("statuses") Collection<ImportStatus> statuses,
+                           @Param("interrupted") ImportStatus interrupted,
+                           @Param("message") String message,
+                           @Param("now") Instant now);
+
+    // Hands a resumable job to this node; returns 0 when another node got there first
+    @Modifying
+    @Query("update ImportJob j set j.status = :pending, j.message = null, j.ownerNode = :owner, " +
+            "j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now where j.id = :id and j.status in :resumable")
+    int claim(@Param("id") Long id,
+              @Param("resumable") Collection<ImportStatus> resumable,
+              @Param("pending") ImportStatus pending,
+              @Param("owner") String owner,
+              @Param("leaseExpiresAt") Instant leaseExpiresAt,
+              @Param("now") Instant now);
+
+    @Modifying
+    @Query("update ImportJob j set j.leaseExpiresAt = :leaseExpiresAt where j.ownerNode = :owner and j.status in :statuses")
+    int renewLeases(@Param("owner") String owner,
+                    @Param("statuses") Collection<ImportStatus> statuses,
+                    @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    // Runs inside the chunk transaction so the checkpoint commits together with the chunk's rows.
+    // Returns 0 once the job is no longer running on this node, so the caller can roll the chunk back.
+    @Modifying
+    @Query("update ImportJob j set j.processedRows = :processedRows, j.succeeded = j.succeeded + :succeeded, " +
+            "j.failed = j.failed + :failed, j.updatedAt = :now " +
+            "where j.id = :id and j.ownerNode = :owner and j.status = :running")
+    int advanceCheckpoint(@Param("id") Long id,
+                          @Param("owner") String owner,
+                          @Param("running") ImportStatus running,
+                          @Param("processedRows") long processedRows,
+                          @Param("succeeded") long succeeded,
+                          @Param("failed") long failed,
+                          @Param("now") Instant now);
+}
@@ -0,0 +1,12 @@
+package com.example.school.repository;
+
+import com.example.school.entity.ImportRowError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportRowErrorRepository extends JpaRepository<ImportRowError, Long> {
+    List<ImportRowError> findTop100ByJobIdOrderByRowNumber(Long jobId);
+}
@@ -0,0 +1,9 @@
+package com.example.school.repository;
+
+/**
+ * One enrolled student of a course roster.
+ */
+public interface RosterRow {
+    Long getStudentId();
+    String getUsername();
+}
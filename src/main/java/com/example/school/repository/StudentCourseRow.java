@@ -0,0 +1,13 @@
+package com.example.school.repository;
+
+/**
+ * One row of the flattened student / enrollment join, used for streaming exports.
+ * Course columns are null for students without enrollments.
+ */
+public interface StudentCourseRow {
+    Long getStudentId();
+    String getOwnerUsername();
+    Long getCourseId();
+    String getCourseTitle();
+    String getCourseDescription();
+}
@@ -2,11 +2,52 @@ package com.example.school.repository;
 
 import com.example.school.entity.Student;
 import com.example.school.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
     Optional<Student> findByOwner(User owner);
-}
\ No newline at end of file
+
+    @Query("select s.id from Student s join s.owner o where o.username = :username")
+    Optional<Long> findIdByOwnerUsername(@Param("username") String username);
+
+    @Query("select s.version as version, s.updatedAt as updatedAt from Student s where s.id = :id")
+    Optional<StudentVersionRow> findVersionById(@Param("id") Long id);
+
+    // Keyset page of a course roster, read from student_courses by course_id
+    @Query("select s.id as studentId, o.username as username from Student s join s.courses c join s.owner o " +
+            "where c.id = :courseId and s.id > :afterId order by s.id")
+    List<RosterRow> findRosterAfter(@Param("courseId") Long courseId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select distinct s from Student s left join fetch s.owner left join fetch s.courses")
+    List<Student> findAllWithOwnerAndCourses();
+
+    // Keyset page: ids only, so the limit is applied in SQL rather than over a collection fetch
+    @Query("select s.id from Student s where s.id > :afterId order by s.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select distinct s from Student s left join fetch s.owner left join fetch s.courses " +
+            "where s.id in :ids order by s.id")
+    List<Student> findAllWithOwnerAndCoursesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Flat projection read through a server-side cursor; rows of one student are adjacent
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s.id as studentId, o.username as ownerUsername, c.id as courseId, " +
+            "c.title as courseTitle, c.description as courseDescription " +
+            "from Student s left join s.owner o left join s.courses c order by s.id, c.id")
+    Stream<StudentCourseRow> streamAllWithCourses();
+}
@@ -0,0 +1,11 @@
+package com.example.school.repository;
+
+import java.time.Instant;
+
+/**
+ * The conditional GET validators of a student profile.
+ */
+public interface StudentVersionRow {
+    long getVersion();
+    Instant getUpdatedAt();
+}
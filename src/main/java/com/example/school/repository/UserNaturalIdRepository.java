@@ -0,0 +1,9 @@
+package com.example.school.repository;
+
+import com.example.school.entity.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    Optional<User> findByUsername(String username);
+}
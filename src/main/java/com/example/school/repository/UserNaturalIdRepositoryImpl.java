@@ -0,0 +1,29 @@
+package com.example.school.repository;
+
+import com.example.school.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Resolves users by username through Hibernate's natural-id API so lookups hit the
+ * {@code user-by-username} and {@code user} second-level cache regions instead of issuing a query.
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // the shared EntityManager only hands out a usable Session inside a transaction; not read-only,
+    // so logins stay on the primary and see an account the moment it is registered
+    @Override
+    @Transactional
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
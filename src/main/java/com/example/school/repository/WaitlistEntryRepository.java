@@ -0,0 +1,29 @@
+package com.example.school.repository;
+
+import com.example.school.entity.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    Optional<WaitlistEntry> findByCourseIdAndStudentId(Long courseId, Long studentId);
+
+    List<WaitlistEntry> findByStudentIdOrderByCreatedAt(Long studentId);
+
+    // 1-based place in the queue: entries of the same course that arrived earlier, plus this one
+    @Query("select count(w) + 1 from WaitlistEntry w where w.courseId = :courseId " +
+            "and (w.createdAt < :createdAt or (w.createdAt = :createdAt and w.id < :id))")
+    long findPosition(@Param("courseId") Long courseId, @Param("createdAt") Instant createdAt, @Param("id") Long id);
+
+    @Modifying
+    @Query("delete from WaitlistEntry w where w.courseId = :courseId")
+    void deleteByCourseId(@Param("courseId") Long courseId);
+}
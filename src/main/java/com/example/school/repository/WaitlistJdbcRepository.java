@@ -0,0 +1,77 @@
+package com.example.school.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Claiming queries for the waitlist promotion worker. They must run inside the worker's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WaitlistJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public record FreeSeats(long courseId, int seats) {
+    }
+
+    public record Waiting(long entryId, long studentId) {
+    }
+
+    public record Depth(long entries, Instant oldest) {
+    }
+
+    /**
+     * Locks up to {@code limit} courses that have both free seats and waiting students. Courses another
+     * node is already promoting are skipped rather than waited for, so each course is promoted by one
+     * worker at a time, and its seat count cannot move until this transaction ends.
+     */
+    public List<FreeSeats> claimCoursesWithFreeSeats(int limit) {
+        return jdbcTemplate.query(
+                "select c.id, c.capacity - c.enrolled_count as seats from course c " +
+                        "where c.capacity is not null and c.enrolled_count < c.capacity " +
+                        "and exists (select 1 from waitlist_entry w where w.course_id = c.id) " +
+                        "order by c.id limit ? for update skip locked",
+                (rs, i) -> new FreeSeats(rs.getLong("id"), rs.getInt("seats")),
+                limit);
+    }
+
+    /**
+     * Oldest entries first. Locking them makes a concurrent cancellation wait for this promotion.
+     */
+    public List<Waiting> findWaiting(long courseId, int limit) {
+        return jdbcTemplate.query(
+                "select id, student_id from waitlist_entry where course_id = ? " +
+                        "order by created_at, id limit ? for update",
+                (rs, i) -> new Waiting(rs.getLong("id"), rs.getLong("student_id")),
+                courseId, limit);
+    }
+
+    public void deleteEntries(Collection<Long> entryIds) {
+        if (entryIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update("delete from waitlist_entry where id in (:ids)",
+                new MapSqlParameterSource("ids", entryIds));
+    }
+
+    public Depth depth() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) as entries, min(created_at) as oldest from waitlist_entry",
+                (rs, i) -> {
+                    // Instants are stored as UTC timestamps without a zone
+                    LocalDateTime oldest = rs.getObject("oldest", LocalDateTime.class);
+                    return new Depth(rs.getLong("entries"), oldest == null ? null : oldest.toInstant(ZoneOffset.UTC));
+                });
+    }
+}
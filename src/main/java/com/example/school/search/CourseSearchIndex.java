@@ -0,0 +1,278 @@
+package com.example.school.search;
+
+import com.example.school.cache.CacheInvalidationBus;
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.CourseResponse;
+import com.example.school.entity.Course;
+import com.example.school.repository.CourseRepository;
+import com.example.school.util.MapperUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over course titles and descriptions, answering typeahead queries with
+ * exact, prefix and fuzzy (edit distance) term matches. It is built in the background at startup and
+ * kept current by {@link #add} and {@link #remove} after commit; until the first build completes,
+ * {@link #isReady()} is false and callers fall back to the database.
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseSearchIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // A title hit outranks a description hit; within a field, exact > prefix > fuzzy
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double EXACT = 3.0;
+    private static final double PREFIX = 2.0;
+    private static final double FUZZY = 1.0;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Index index;
+    // Bumped by every incremental change, so a rebuild that raced one is redone
+    private final AtomicLong changes = new AtomicLong();
+
+    public CourseSearchIndex(CourseRepository courseRepository,
+                             TransactionTemplate transactionTemplate,
+                             CacheInvalidationBus invalidationBus,
+                             @Value("${cache.invalidation.mode:local}") String invalidationMode) {
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Other nodes' catalog changes arrive as catalog invalidations; locally, add/remove keep up
+        if (!"local".equals(invalidationMode)) {
+            invalidationBus.subscribe(CourseCatalogCache.CACHE_NAME, this::rebuildAsync);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAsync() {
+        builder.execute(this::rebuild);
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Indexes a course once the surrounding transaction commits.
+     */
+    public void add(Course course) {
+        CourseResponse response = MapperUtil.toCourseResponse(course);
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            Index current = index;
+            if (current != null) {
+                current.add(response);
+            }
+        });
+    }
+
+    public void addAll(Collection<Course> courses) {
+        courses.forEach(this::add);
+    }
+
+    /**
+     * Drops a course once the surrounding transaction commits.
+     */
+    public void remove(Long courseId) {
+        afterCommit(() -> {
+            changes.incrementAndGet();
+            Index current = index;
+            if (current != null) {
+                current.remove(courseId);
+            }
+        });
+    }
+
+    /**
+     * Courses matching every query term, best first. Returns an empty list while the index is cold.
+     */
+    public List<CourseResponse> search(String query, int limit) {
+        Index current = index;
+        List<String> terms = tokenize(query);
+        if (current == null || terms.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        for (String term : terms) {
+            Map<Long, Double> termScores = new HashMap<>();
+            match(current.titleTerms, term, TITLE_WEIGHT, termScores);
+            match(current.descriptionTerms, term, 1.0, termScores);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .map(entry -> Map.entry(current.courses.get(entry.getKey()), entry.getValue()))
+                .filter(entry -> entry.getKey() != null)
+                .sorted(Map.Entry.<CourseResponse, Double>comparingByValue().reversed()
+                        .thenComparing(entry -> entry.getKey().getId()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Lower-cased, accent-free alphanumeric terms; also used to build the database fallback query.
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(folded.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private void rebuild() {
+        long started;
+        Index built;
+        do {
+            started = changes.get();
+            built = new Index();
+            // Read from the primary: a rebuild after another node's change must see that change,
+            // and a read-write transaction keeps findAll from routing to a lagging replica
+            List<Course> courses = transactionTemplate.execute(status -> courseRepository.findAll());
+            for (Course course : courses) {
+                built.add(MapperUtil.toCourseResponse(course));
+            }
+        } while (changes.get() != started);
+        index = built;
+        logger.info("Course search index built with {} courses", built.courses.size());
+    }
+
+    private static void match(ConcurrentSkipListMap<String, Set<Long>> terms, String term,
+                              double weight, Map<Long, Double> scores) {
+        for (Map.Entry<String, Set<Long>> entry : terms.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            double score = weight * (entry.getKey().equals(term) ? EXACT : PREFIX);
+            entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+        }
+
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return;
+        }
+        // Typos in the first letter are rare; only terms sharing it are compared
+        int maxEdits = term.length() >= 8 ? 2 : 1;
+        String first = term.substring(0, 1);
+        for (Map.Entry<String, Set<Long>> entry : terms.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+            String candidate = entry.getKey();
+            if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                    && !candidate.startsWith(term)
+                    && withinDistance(term, candidate, maxEdits)) {
+                double score = weight * FUZZY;
+                entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+            }
+        }
+    }
+
+    // Levenshtein distance <= max, abandoning a row as soon as every cell exceeds it
+    private static boolean withinDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class Index {
+        private final ConcurrentSkipListMap<String, Set<Long>> titleTerms = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<String, Set<Long>> descriptionTerms = new ConcurrentSkipListMap<>();
+        private final Map<Long, CourseResponse> courses = new ConcurrentHashMap<>();
+
+        void add(CourseResponse course) {
+            remove(course.getId());
+            courses.put(course.getId(), course);
+            tokenize(course.getTitle()).forEach(term -> post(titleTerms, term, course.getId()));
+            tokenize(course.getDescription()).forEach(term -> post(descriptionTerms, term, course.getId()));
+        }
+
+        void remove(Long courseId) {
+            CourseResponse course = courses.remove(courseId);
+            if (course != null) {
+                tokenize(course.getTitle()).forEach(term -> unpost(titleTerms, term, courseId));
+                tokenize(course.getDescription()).forEach(term -> unpost(descriptionTerms, term, courseId));
+            }
+        }
+
+        private static void post(ConcurrentSkipListMap<String, Set<Long>> terms, String term, Long courseId) {
+            terms.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(courseId);
+        }
+
+        private static void unpost(ConcurrentSkipListMap<String, Set<Long>> terms, String term, Long courseId) {
+            terms.computeIfPresent(term, (key, ids) -> {
+                ids.remove(courseId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
@@ -4,10 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,14 +15,35 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    // Registered once; recording is a nanoTime pair and an atomic add, cheap enough for every request
+    private final Timer parseTimer;
+    private final Timer userLookupTimer;
+    private final Timer authorizationTimer;
+
+    // When enabled, the principal is built from the signed claims instead of loading the user from the database
+    @Value("${security.jwt.trust-token-claims:false}")
+    private boolean trustTokenClaims;
+
+    public JwtAuthFilter(JwtService jwtService,
+                         UserDetailsService userDetailsService,
+                         TokenRevocationService tokenRevocationService,
+                         MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.parseTimer = phaseTimer(meterRegistry, "parse");
+        this.userLookupTimer = phaseTimer(meterRegistry, "user_lookup");
+        this.authorizationTimer = phaseTimer(meterRegistry, "authorization");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -39,23 +60,49 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        // Signature is checked once; later requests with the same token hit the cache
+        long start = System.nanoTime();
+        VerifiedToken token = jwtService.verifyToken(jwt);
+        username = token.getUsername();
+        start = record(parseTimer, start);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                // Extract role from token if stored as custom claim
-                String role = jwtService.extractClaim(jwt, claims -> claims.get("role", String.class));
-                List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !token.isExpired() && !tokenRevocationService.isRevoked(token)) {
+            UserDetails userDetails = trustTokenClaims
+                    ? userFromClaims(token)
+                    : userDetailsService.loadUserByUsername(username);
+            start = record(userLookupTimer, start);
 
+            if (username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+                        new UsernamePasswordAuthenticationToken(userDetails, null, token.getAuthorities());
 
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            record(authorizationTimer, start);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static long record(Timer timer, long start) {
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private static Timer phaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("security.jwt.filter")
+                .description("Time spent in each phase of JWT authentication")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private UserDetails userFromClaims(VerifiedToken token) {
+        return org.springframework.security.core.userdetails.User
+                .withUsername(token.getUsername())
+                .password("")
+                .authorities(token.getAuthorities())
+                .build();
+    }
+}
@@ -2,9 +2,13 @@ package com.example.school.security;
 
 import com.example.school.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -14,33 +18,58 @@ import java.util.Date;
 import io.jsonwebtoken.io.Decoders;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
     private static final String SECRET_KEY = "6F3B1A715A2E485F96DE57E4817F6BA0B20F21807330F084A6D09D12C9F88E17";
+    private static final Key SIGN_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGN_KEY).build();
+
+    public static final long TOKEN_TTL_MILLIS = 1000 * 60 * 60 * 24; // 24 hours
+    // "iat" only has second precision; revocation needs to order tokens within the same second
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
+    private final JwtTokenCache tokenCache;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token).getClaims();
         return claimsResolver.apply(claims);
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
+        return PARSER
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * Verifies the token signature once and reuses the result until the token expires.
+     */
+    public VerifiedToken verifyToken(String token) {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        String role = claims.get("role", String.class);
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+
+        VerifiedToken verified = new VerifiedToken(claims, authorities);
+        tokenCache.put(token, verified);
+        return verified;
+    }
+
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("username", user.getUsername());
@@ -50,26 +79,19 @@ public class JwtService {
     }
 
     private String buildToken(Map<String, Object> claims, User user) {
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS_CLAIM, now);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(user.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24 hours
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_TTL_MILLIS))
+                .signWith(SIGN_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+        VerifiedToken verified = verifyToken(token);
+        return (verified.getUsername().equals(userDetails.getUsername()) && !verified.isExpired());
     }
 }
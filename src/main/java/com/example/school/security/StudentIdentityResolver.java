@@ -0,0 +1,59 @@
+package com.example.school.security;
+
+import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.repository.StudentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Maps an authenticated username to its student id. Results are memoized on the current request
+ * and kept in a short-lived cache across requests; a username never changes owner, so the TTL only
+ * bounds memory. Missing students are not cached, since registration creates them moments later.
+ */
+@Component
+public class StudentIdentityResolver {
+
+    public static final String CACHE_NAME = "studentIdentity";
+    private static final String REQUEST_ATTRIBUTE = StudentIdentityResolver.class.getName() + ".";
+
+    private final StudentRepository studentRepository;
+    private final Cache<String, Long> cache;
+
+    public StudentIdentityResolver(StudentRepository studentRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${cache.student-identity.max-size:10000}") long maxSize,
+                                   @Value("${cache.student-identity.ttl:60s}") Duration ttl) {
+        this.studentRepository = studentRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Long resolveStudentId(String username) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String attribute = REQUEST_ATTRIBUTE + username;
+        if (request != null && request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST) instanceof Long id) {
+            return id;
+        }
+
+        Long studentId = cache.get(username, key -> studentRepository.findIdByOwnerUsername(key).orElse(null));
+        if (studentId == null) {
+            throw new ResourceNotFoundException("Student not found");
+        }
+        if (request != null) {
+            request.setAttribute(attribute, studentId, RequestAttributes.SCOPE_REQUEST);
+        }
+        return studentId;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.school.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * In-memory revocation list: every token a user was issued up to the moment of revocation is rejected.
+ * Entries are dropped once every token they cover has expired on its own.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final Cache<String, Long> revokedUntil = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(JwtService.TOKEN_TTL_MILLIS))
+            .build();
+
+    public void revokeAllTokens(String username) {
+        revokedUntil.put(username, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Long cutoff = revokedUntil.getIfPresent(token.getUsername());
+        if (cutoff == null) {
+            return false;
+        }
+        Long issuedAtMillis = token.getIssuedAtMillis();
+        if (issuedAtMillis != null) {
+            return issuedAtMillis <= cutoff;
+        }
+        // Older tokens only carry "iat" in whole seconds; anything from the cutoff's second may predate it
+        Date issuedAt = token.getClaims().getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutoff / 1000;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.school.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A JWT whose signature has already been checked, together with the authorities derived from it.
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+
+    private final Claims claims;
+    private final List<GrantedAuthority> authorities;
+
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    /**
+     * Issue time in milliseconds, or null for tokens minted before the claim existed.
+     */
+    public Long getIssuedAtMillis() {
+        return claims.get(JwtService.ISSUED_AT_MILLIS_CLAIM, Long.class);
+    }
+
+    public boolean isExpired() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.school.service;
+
+import com.example.school.entity.CatalogVersion;
+import com.example.school.repository.CatalogVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionService {
+
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    /**
+     * Marks the catalog as changed. Must run inside the transaction that changes the courses.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump() {
+        Instant now = Instant.now();
+        if (catalogVersionRepository.increment(CatalogVersion.ID, now) == 0) {
+            // First change ever: the counter row does not exist yet
+            catalogVersionRepository.save(CatalogVersion.builder()
+                    .id(CatalogVersion.ID)
+                    .version(1)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    public CatalogVersion current() {
+        return catalogVersionRepository.findById(CatalogVersion.ID)
+                .orElseGet(() -> CatalogVersion.builder()
+                        .id(CatalogVersion.ID)
+                        .version(0)
+                        .updatedAt(Instant.EPOCH)
+                        .build());
+    }
+}
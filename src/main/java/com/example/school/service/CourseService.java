@@ -1,12 +1,24 @@
 package com.example.school.service;
 
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.CacheValidators;
 import com.example.school.dto.CourseRequest;
 import com.example.school.dto.CourseResponse;
+import com.example.school.dto.EnrollmentStatsResponse;
+import com.example.school.dto.PageResponse;
+import com.example.school.dto.RosterEntryResponse;
 
 import java.util.List;
 
 public interface CourseService {
     CourseResponse createCourse(CourseRequest request);
     List<CourseResponse> getAllCourses();
+    CourseCatalogCache.Snapshot getCatalog();
+    CacheValidators getCatalogValidators();
+    PageResponse<CourseResponse> getCoursesPage(String after, Integer limit);
+    List<CourseResponse> searchCourses(String query, Integer limit);
+    PageResponse<RosterEntryResponse> getRoster(Long courseId, String after, Integer limit);
+    EnrollmentStatsResponse getEnrollmentStats();
+    void reconcileEnrollmentCounts();
     void deleteCourse(Long courseId);
-}
\ No newline at end of file
+}
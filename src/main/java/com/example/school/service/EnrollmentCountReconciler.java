@@ -0,0 +1,25 @@
+package com.example.school.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recounts course enrollments so the stats counters cannot drift for long. Runs are
+ * idempotent and safe on several nodes at once; set {@code enrollment.reconcile.enabled=false}
+ * to keep a node out.
+ */
+@Component
+@ConditionalOnProperty(name = "enrollment.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EnrollmentCountReconciler {
+
+    private final CourseService courseService;
+
+    @Scheduled(fixedDelayString = "${enrollment.reconcile.interval:PT15M}",
+            initialDelayString = "${enrollment.reconcile.initial-delay:PT1M}")
+    public void reconcile() {
+        courseService.reconcileEnrollmentCounts();
+    }
+}
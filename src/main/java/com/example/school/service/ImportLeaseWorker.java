@@ -0,0 +1,27 @@
+package com.example.school.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this node's import leases alive and hands back imports whose node has stopped renewing
+ * them. The renew interval must stay well below {@code import.lease.duration}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportLeaseWorker {
+
+    private final ImportService importService;
+
+    @Scheduled(fixedDelayString = "${import.lease.renew-interval:PT30S}")
+    public void renew() {
+        importService.renewLeases();
+    }
+
+    @Scheduled(fixedDelayString = "${import.lease.renew-interval:PT30S}",
+            initialDelayString = "${import.lease.duration:PT2M}")
+    public void reclaim() {
+        importService.markInterruptedJobs();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.school.service;
+
+import com.example.school.dto.ImportJobResponse;
+import com.example.school.entity.ImportKind;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImportService {
+
+    ImportJobResponse startImport(ImportKind kind, MultipartFile file);
+
+    ImportJobResponse resumeImport(Long jobId);
+
+    ImportJobResponse getImport(Long jobId);
+
+    /** Extends the lease on every pending or running import this node owns. */
+    void renewLeases();
+
+    /** Marks pending or running imports whose lease has expired as interrupted. */
+    void markInterruptedJobs();
+}
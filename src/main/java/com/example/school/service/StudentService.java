@@ -1,7 +1,12 @@
 package com.example.school.service;
 
+import com.example.school.dto.BulkEnrollmentResponse;
+import com.example.school.dto.CacheValidators;
+import com.example.school.dto.EnrollmentRequest;
+import com.example.school.dto.PageResponse;
 import com.example.school.dto.StudentResponse;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface StudentService {
@@ -12,10 +17,18 @@ public interface StudentService {
 
     StudentResponse getStudentByUsername(String username);
 
+    CacheValidators getStudentValidators(String username);
+
     List<StudentResponse> getAllStudents();
 
+    PageResponse<StudentResponse> getStudentsPage(String after, Integer limit);
+
+    void exportStudents(OutputStream outputStream);
+
     StudentResponse enrollCoursesByAdmin(Long studentId, List<Long> courseIds);
 
+    BulkEnrollmentResponse bulkEnrollCoursesByAdmin(List<EnrollmentRequest> requests);
+
     StudentResponse addCoursesToStudent(String username, List<Long> courseIds);
 
     StudentResponse removeCourseForStudent(String username, Long courseId);
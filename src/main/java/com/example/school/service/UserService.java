@@ -5,20 +5,29 @@ import com.example.school.entity.Student;
 import com.example.school.entity.User;
 import com.example.school.exception.DuplicateUsernameException;
 import com.example.school.exception.InvalidPasswordException;
+import com.example.school.exception.TooManyRequestsException;
 import com.example.school.repository.StudentRepository;
 import com.example.school.repository.UserRepository;
+import com.example.school.security.PasswordHashingService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final StudentRepository studentRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     @Transactional
     public void registerUser(AuthRequest request) {
@@ -28,19 +37,37 @@ public class UserService {
         User savedUser = userRepository.save(user);
 
         createStudentProfile(savedUser);
+
+        // Both inserts go out in one flush; the unique constraint on users.username catches duplicates
+        try {
+            studentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isUsernameViolation(e)) {
+                throw new DuplicateUsernameException("Username already exists");
+            }
+            throw e;
+        }
     }
 
     public User authenticateUser(AuthRequest request) {
-        return userRepository.findByUsername(request.getUsername())
-                .filter(user -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+        User user = userRepository.findByUsername(request.getUsername())
+                .filter(found -> passwordHashingService.matches(request.getPassword(), found.getPassword()))
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
-    }
 
-    private void validateRegistration(AuthRequest request) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new DuplicateUsernameException("Username already exists");
+        // Transparently move old hashes to the currently configured work factor
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            try {
+                user.setPassword(passwordHashingService.encode(request.getPassword()));
+                userRepository.save(user);
+            } catch (TooManyRequestsException e) {
+                // Best effort: the password was already verified, so a busy hashing pool must not fail the login
+                logger.debug("Skipping password rehash for user: {}, hashing pool is busy", user.getUsername());
+            }
         }
+        return user;
+    }
 
+    private void validateRegistration(AuthRequest request) {
         if (!isValidPassword(request.getPassword())) {
             throw new InvalidPasswordException("Password does not meet requirements");
         }
@@ -49,7 +76,7 @@ public class UserService {
     private User createUser(AuthRequest request) {
         return User.builder()
                 .username(request.getUsername())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role("STUDENT")
                 .build();
     }
@@ -61,7 +88,17 @@ public class UserService {
         studentRepository.save(student);
     }
 
-    private boolean isValidPassword(String password) {
+    // Other unique violations (e.g. a primary key) are real errors, not a taken username
+    public boolean isUsernameViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.USERNAME_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    public boolean isValidPassword(String password) {
         if (password == null || password.length() < 8) {
             return false;
         }
@@ -0,0 +1,23 @@
+package com.example.school.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs waitlist promotion in the background. Every node may run it; set
+ * {@code waitlist.promotion.enabled=false} to keep a node out of the rotation.
+ */
+@Component
+@ConditionalOnProperty(name = "waitlist.promotion.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class WaitlistPromotionWorker {
+
+    private final WaitlistService waitlistService;
+
+    @Scheduled(fixedDelayString = "${waitlist.promotion.interval:PT5S}")
+    public void promote() {
+        waitlistService.promoteWaitlisted();
+    }
+}
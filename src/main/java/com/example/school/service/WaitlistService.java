@@ -0,0 +1,19 @@
+package com.example.school.service;
+
+import com.example.school.dto.WaitlistEntryResponse;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    WaitlistEntryResponse joinWaitlist(String username, Long courseId);
+
+    void leaveWaitlist(String username, Long courseId);
+
+    List<WaitlistEntryResponse> getWaitlist(String username);
+
+    /**
+     * Moves waiting students into free seats, oldest first. Safe to run on several nodes at once.
+     */
+    void promoteWaitlisted();
+}
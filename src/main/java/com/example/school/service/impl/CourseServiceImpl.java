@@ -1,49 +1,231 @@
 package com.example.school.service.impl;
 
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.CacheValidators;
 import com.example.school.dto.CourseRequest;
 import com.example.school.dto.CourseResponse;
+import com.example.school.dto.CourseStatsResponse;
+import com.example.school.dto.EnrollmentStatsResponse;
+import com.example.school.dto.PageResponse;
+import com.example.school.dto.RosterEntryResponse;
+import com.example.school.entity.CatalogVersion;
 import com.example.school.entity.Course;
 import com.example.school.exception.ResourceNotFoundException;
 import com.example.school.repository.CourseRepository;
+import com.example.school.repository.CourseStatsRow;
+import com.example.school.repository.EnrollmentJdbcRepository;
+import com.example.school.repository.RosterRow;
+import com.example.school.repository.StudentRepository;
+import com.example.school.repository.WaitlistEntryRepository;
+import com.example.school.search.CourseSearchIndex;
+import com.example.school.service.CatalogVersionService;
 import com.example.school.service.CourseService;
+import com.example.school.util.CursorUtil;
+import com.example.school.util.ETagUtil;
 import com.example.school.util.MapperUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CourseServiceImpl implements CourseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CourseServiceImpl.class);
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final CourseRepository courseRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final StudentRepository studentRepository;
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseCatalogCache catalogCache;
+    private final CatalogVersionService catalogVersionService;
+    private final CourseSearchIndex searchIndex;
+    private final MeterRegistry meterRegistry;
 
     @Override
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public CourseResponse createCourse(CourseRequest request) {
+        if (request.getCapacity() != null && request.getCapacity() < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
         Course course = Course.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
+                .capacity(request.getCapacity())
                 .build();
 
         courseRepository.save(course);
+        catalogVersionService.bump();
+        catalogCache.invalidate();
+        searchIndex.add(course);
         return MapperUtil.toCourseResponse(course);
     }
 
     @Override
     public List<CourseResponse> getAllCourses() {
-        return courseRepository.findAll()
+        return getCatalog().getCourses();
+    }
+
+    @Override
+    public CourseCatalogCache.Snapshot getCatalog() {
+        return catalogCache.get(this::loadAllCourses);
+    }
+
+    @Override
+    public CacheValidators getCatalogValidators() {
+        CourseCatalogCache.Snapshot cached = catalogCache.getIfPresent();
+        if (cached != null) {
+            return catalogValidators(cached.getVersion(), cached.getLastModified());
+        }
+        // Cold cache: the version counter alone answers polls from clients that are still current.
+        // Read on the primary like the catalog itself, so a 304 never rests on a lagging replica
+        CatalogVersion version = transactionTemplate.execute(status -> catalogVersionService.current());
+        return catalogValidators(version.getVersion(), version.getUpdatedAt());
+    }
+
+    private static CacheValidators catalogValidators(long version, Instant lastModified) {
+        return new CacheValidators(ETagUtil.strong("catalog", version), lastModified);
+    }
+
+    private CourseCatalogCache.Snapshot loadAllCourses() {
+        // A read-write transaction keeps this on the primary: the repositories' own read-only transactions
+        // join it instead of routing to the replica, whose lag would stay pinned in the cached snapshot
+        return transactionTemplate.execute(status -> {
+            // Read the version first: a change committing in between yields an older tag, never a newer one
+            CatalogVersion version = catalogVersionService.current();
+            List<CourseResponse> courses = courseRepository.findAll()
+                    .stream()
+                    .map(MapperUtil::toCourseResponse)
+                    .toList();
+            return catalogCache.snapshot(courses, version.getVersion(), version.getUpdatedAt());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<CourseResponse> getCoursesPage(String after, Integer limit) {
+        int pageSize = CursorUtil.clampLimit(limit);
+        List<Course> courses = courseRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorUtil.decode(after), PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = courses.size() > pageSize;
+        List<Course> page = hasNext ? courses.subList(0, pageSize) : courses;
+
+        String next = hasNext ? CursorUtil.encode(page.get(page.size() - 1).getId()) : null;
+        return new PageResponse<>(page.stream().map(MapperUtil::toCourseResponse).toList(), next);
+    }
+
+    @Override
+    public List<CourseResponse> searchCourses(String query, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        long start = System.nanoTime();
+        if (searchIndex.isReady()) {
+            List<CourseResponse> results = searchIndex.search(query, size);
+            meterRegistry.timer("course.search", "source", "index").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return results;
+        }
+
+        // Cold index: prefix-only full-text search in Postgres, no fuzzy matching
+        List<String> terms = CourseSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        String tsQuery = terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+        List<CourseResponse> results = courseRepository.searchFullText(tsQuery, size)
                 .stream()
                 .map(MapperUtil::toCourseResponse)
                 .toList();
+        meterRegistry.timer("course.search", "source", "database").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public PageResponse<RosterEntryResponse> getRoster(Long courseId, String after, Integer limit) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found");
+        }
+        int pageSize = CursorUtil.clampLimit(limit);
+        List<RosterRow> rows = studentRepository.findRosterAfter(
+                courseId, CursorUtil.decode(after), PageRequest.of(0, pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<RosterRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String next = hasNext ? CursorUtil.encode(page.get(page.size() - 1).getStudentId()) : null;
+        return new PageResponse<>(page.stream()
+                .map(row -> new RosterEntryResponse(row.getStudentId(), row.getUsername()))
+                .toList(), next);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public EnrollmentStatsResponse getEnrollmentStats() {
+        // enrolled_count is kept current by every seat allocation and release; see EnrollmentJdbcRepository
+        List<CourseStatsResponse> courses = courseRepository.findAllStats()
+                .stream()
+                .map(CourseServiceImpl::toStatsResponse)
+                .toList();
+        long total = courses.stream().mapToLong(CourseStatsResponse::getEnrolled).sum();
+        return new EnrollmentStatsResponse(total, courses);
+    }
+
+    @Override
+    public void reconcileEnrollmentCounts() {
+        int corrected = 0;
+        try {
+            // One short transaction per course keeps each row lock brief
+            for (Long courseId : courseRepository.findAllIds()) {
+                Integer drift = transactionTemplate.execute(
+                        status -> enrollmentJdbcRepository.reconcileEnrolledCount(courseId));
+                if (drift != null && drift != 0) {
+                    logger.warn("Corrected enrolled count of course ID: {} by {}", courseId, drift);
+                    meterRegistry.counter("enrollment.count.corrections").increment(Math.abs(drift));
+                    corrected++;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Enrollment count reconciliation failed after {} corrections", corrected, e);
+        }
+    }
+
+    @Override
+    @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteCourse(Long courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        waitlistEntryRepository.deleteByCourseId(courseId);
         courseRepository.delete(course);
+        catalogVersionService.bump();
+        catalogCache.invalidate();
+        searchIndex.remove(courseId);
+    }
+
+    private static CourseStatsResponse toStatsResponse(CourseStatsRow row) {
+        return CourseStatsResponse.builder()
+                .courseId(row.getCourseId())
+                .title(row.getTitle())
+                .capacity(row.getCapacity())
+                .enrolled(row.getEnrolled())
+                .build();
     }
 }
\ No newline at end of file
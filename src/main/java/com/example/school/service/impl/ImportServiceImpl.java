@@ -0,0 +1,573 @@
+package com.example.school.service.impl;
+
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.ImportJobResponse;
+import com.example.school.entity.Course;
+import com.example.school.entity.ImportJob;
+import com.example.school.entity.ImportKind;
+import com.example.school.entity.ImportRowError;
+import com.example.school.entity.ImportStatus;
+import com.example.school.entity.Student;
+import com.example.school.entity.User;
+import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.repository.CourseRepository;
+import com.example.school.repository.EnrollmentJdbcRepository;
+import com.example.school.repository.ImportJobRepository;
+import com.example.school.repository.ImportRowErrorRepository;
+import com.example.school.repository.StudentRepository;
+import com.example.school.repository.UserRepository;
+import com.example.school.search.CourseSearchIndex;
+import com.example.school.service.CatalogVersionService;
+import com.example.school.service.ImportService;
+import com.example.school.service.UserService;
+import com.example.school.util.ImportFileReader;
+import com.example.school.util.MapperUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams an uploaded CSV/NDJSON file through validation, parallel password hashing and chunked
+ * transactions. Each chunk commits together with the job checkpoint, so an interrupted import
+ * resumes at the first uncommitted row. The node running a job holds a lease on it and renews it
+ * while it works; only jobs whose lease has lapsed are marked interrupted.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportServiceImpl.class);
+    private static final String COURSE_FULL = "One or more courses are full.";
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final Set<ImportStatus> ACTIVE = EnumSet.of(ImportStatus.PENDING, ImportStatus.RUNNING);
+    private static final Set<ImportStatus> RESUMABLE = EnumSet.of(ImportStatus.INTERRUPTED, ImportStatus.FAILED);
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRowErrorRepository importRowErrorRepository;
+    private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseCatalogCache catalogCache;
+    private final CatalogVersionService catalogVersionService;
+    private final CourseSearchIndex searchIndex;
+
+    private final Path storageDir;
+    private final int chunkSize;
+    private final String nodeId;
+    private final Duration leaseDuration;
+
+    // One import at a time; hashing has its own pool so imports never queue behind logins
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(daemon("import-runner"));
+    private final ExecutorService hashingPool;
+
+    public ImportServiceImpl(ImportJobRepository importJobRepository,
+                             ImportRowErrorRepository importRowErrorRepository,
+                             UserRepository userRepository,
+                             StudentRepository studentRepository,
+                             CourseRepository courseRepository,
+                             EnrollmentJdbcRepository enrollmentJdbcRepository,
+                             UserService userService,
+                             PasswordEncoder passwordEncoder,
+                             ObjectMapper objectMapper,
+                             TransactionTemplate transactionTemplate,
+                             CourseCatalogCache catalogCache,
+                             CatalogVersionService catalogVersionService,
+                             CourseSearchIndex searchIndex,
+                             @Value("${import.storage-dir:${java.io.tmpdir}/school-imports}") String storageDir,
+                             @Value("${import.chunk-size:500}") int chunkSize,
+                             @Value("${import.hashing-threads:0}") int hashingThreads,
+                             @Value("${import.lease.node-id:}") String nodeId,
+                             @Value("${import.lease.duration:PT2M}") Duration leaseDuration) {
+        this.importJobRepository = importJobRepository;
+        this.importRowErrorRepository = importRowErrorRepository;
+        this.userRepository = userRepository;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentJdbcRepository = enrollmentJdbcRepository;
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogCache = catalogCache;
+        this.catalogVersionService = catalogVersionService;
+        this.searchIndex = searchIndex;
+        this.storageDir = Paths.get(storageDir);
+        this.chunkSize = chunkSize;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.leaseDuration = leaseDuration;
+        this.hashingPool = Executors.newFixedThreadPool(
+                hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors(),
+                daemon("import-hashing"));
+    }
+
+    @Override
+    public ImportJobResponse startImport(ImportKind kind, MultipartFile file) {
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        String extension = extensionOf(fileName);
+        logger.info("Starting {} import from file: {}", kind, fileName);
+
+        Path target = storageDir.resolve(UUID.randomUUID() + extension);
+        try {
+            Files.createDirectories(storageDir);
+            file.transferTo(target);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store uploaded file", e);
+        }
+
+        Instant now = Instant.now();
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .kind(kind)
+                .status(ImportStatus.PENDING)
+                .fileName(fileName)
+                .storagePath(target.toString())
+                .ownerNode(nodeId)
+                .leaseExpiresAt(now.plus(leaseDuration))
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        Long jobId = job.getId();
+        runner.submit(() -> run(jobId));
+        return MapperUtil.toImportJobResponse(job, List.of());
+    }
+
+    @Override
+    public ImportJobResponse resumeImport(Long jobId) {
+        ImportJob job = findJob(jobId);
+        // Any node may claim the job, but it re-reads the upload; that needs import.storage-dir on shared storage
+        if (!Files.isReadable(Paths.get(job.getStoragePath()))) {
+            throw new IllegalStateException("The uploaded file for import " + jobId + " is not available on this node");
+        }
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(status -> importJobRepository.claim(
+                jobId, RESUMABLE, ImportStatus.PENDING, nodeId, now.plus(leaseDuration), now));
+        if (claimed == null || claimed == 0) {
+            throw new IllegalStateException("Only interrupted or failed imports can be resumed");
+        }
+        logger.info("Resuming import ID: {} after row {}", jobId, job.getProcessedRows());
+
+        runner.submit(() -> run(jobId));
+        return getImport(jobId);
+    }
+
+    @Override
+    public ImportJobResponse getImport(Long jobId) {
+        ImportJob job = findJob(jobId);
+        return MapperUtil.toImportJobResponse(job, importRowErrorRepository.findTop100ByJobIdOrderByRowNumber(jobId));
+    }
+
+    @Override
+    public void renewLeases() {
+        Integer renewed = transactionTemplate.execute(status ->
+                importJobRepository.renewLeases(nodeId, ACTIVE, Instant.now().plus(leaseDuration)));
+        if (renewed != null && renewed > 0) {
+            logger.debug("Renewed the lease on {} import(s) owned by node {}", renewed, nodeId);
+        }
+    }
+
+    // Jobs whose node stopped renewing the lease can be resumed from their checkpoint
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        Instant now = Instant.now();
+        for (ImportJob job : importJobRepository.findExpired(ACTIVE, now)) {
+            Integer interrupted = transactionTemplate.execute(status -> importJobRepository.interruptIfExpired(
+                    job.getId(), ACTIVE, ImportStatus.INTERRUPTED, "Interrupted: the importing node stopped; resume to continue", now));
+            if (interrupted != null && interrupted > 0) {
+                logger.warn("Marking import ID: {} as interrupted after row {}; lease held by node {} expired",
+                        job.getId(), job.getProcessedRows(), job.getOwnerNode());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = findJob(jobId);
+        updateStatus(jobId, ImportStatus.RUNNING, null);
+
+        long rowNumber = 0;
+        try (ImportFileReader reader = ImportFileReader.open(Paths.get(job.getStoragePath()), objectMapper)) {
+            // Skip everything that was committed before the interruption
+            while (rowNumber < job.getProcessedRows() && readRow(reader, ++rowNumber) != null) {
+                // skipping
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            ImportRow row;
+            while ((row = readRow(reader, rowNumber + 1)) != null) {
+                rowNumber++;
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(job, chunk, rowNumber);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk, rowNumber);
+            }
+
+            updateStatus(jobId, ImportStatus.COMPLETED, null);
+            Files.deleteIfExists(Paths.get(job.getStoragePath()));
+            logger.info("Import ID: {} completed after {} rows", jobId, rowNumber);
+        } catch (LeaseLostException e) {
+            logger.warn("Import ID: {} stopped near row {}: {}", jobId, rowNumber, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Import ID: {} failed near row {}", jobId, rowNumber, e);
+            updateStatus(jobId, ImportStatus.FAILED, e.getMessage());
+        } finally {
+            if (job.getKind() == ImportKind.COURSES) {
+                catalogCache.invalidate();
+            }
+        }
+    }
+
+    private ImportRow readRow(ImportFileReader reader, long rowNumber) {
+        try {
+            Map<String, Object> values = reader.next();
+            return values == null ? null : new ImportRow(rowNumber, values, null);
+        } catch (IllegalArgumentException e) {
+            return new ImportRow(rowNumber, null, e.getMessage());
+        }
+    }
+
+    private void processChunk(ImportJob job, List<ImportRow> rows, long lastRowNumber) {
+        if (job.getKind() == ImportKind.STUDENTS) {
+            importStudents(job.getId(), rows, lastRowNumber);
+        } else {
+            importCourses(job.getId(), rows, lastRowNumber);
+        }
+    }
+
+    private void importStudents(Long jobId, List<ImportRow> rows, long lastRowNumber) {
+        List<ImportRowError> errors = new ArrayList<>();
+        List<StudentRow> candidates = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                errors.add(error(jobId, row.number(), row.error()));
+                continue;
+            }
+            String username = text(row.values(), "username");
+            String password = text(row.values(), "password");
+            if (username == null || username.isBlank()) {
+                errors.add(error(jobId, row.number(), "Username is required"));
+            } else if (!userService.isValidPassword(password)) {
+                errors.add(error(jobId, row.number(), "Password does not meet requirements"));
+            } else {
+                try {
+                    candidates.add(new StudentRow(row.number(), username, password, courseIds(row.values())));
+                } catch (NumberFormatException e) {
+                    errors.add(error(jobId, row.number(), "Invalid course ID"));
+                }
+            }
+        }
+
+        Set<String> existingUsernames = new HashSet<>(userRepository.findExistingUsernames(
+                candidates.stream().map(StudentRow::username).toList()));
+        Set<Long> existingCourses = enrollmentJdbcRepository.findExistingCourseIds(
+                candidates.stream().flatMap(candidate -> candidate.courseIds().stream()).toList());
+
+        Set<String> seen = new HashSet<>();
+        List<StudentRow> valid = new ArrayList<>();
+        for (StudentRow candidate : candidates) {
+            if (existingUsernames.contains(candidate.username()) || !seen.add(candidate.username())) {
+                errors.add(error(jobId, candidate.number(), "Username already exists"));
+            } else if (!existingCourses.containsAll(candidate.courseIds())) {
+                errors.add(error(jobId, candidate.number(), "One or more course IDs are invalid."));
+            } else {
+                valid.add(candidate);
+            }
+        }
+
+        List<String> hashes = hashAll(valid);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<ImportRowError> chunkErrors = new ArrayList<>(errors);
+                List<StudentRow> full = writeStudents(valid, hashes);
+                full.forEach(row -> chunkErrors.add(error(jobId, row.number(), COURSE_FULL)));
+                importRowErrorRepository.saveAll(chunkErrors);
+                advanceCheckpoint(jobId, lastRowNumber, valid.size() - full.size(), chunkErrors.size());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the usernames; fall back to one transaction per row
+            logger.warn("Import ID: {} chunk ending at row {} hit a constraint, retrying row by row", jobId, lastRowNumber);
+            int succeeded = 0;
+            for (int i = 0; i < valid.size(); i++) {
+                StudentRow row = valid.get(i);
+                String hash = hashes.get(i);
+                try {
+                    List<StudentRow> full = transactionTemplate.execute(status -> writeStudents(List.of(row), List.of(hash)));
+                    if (full.isEmpty()) {
+                        succeeded++;
+                    } else {
+                        errors.add(error(jobId, row.number(), COURSE_FULL));
+                    }
+                } catch (DataIntegrityViolationException rowFailure) {
+                    errors.add(error(jobId, row.number(), userService.isUsernameViolation(rowFailure)
+                            ? "Username already exists"
+                            : rowFailure.getMostSpecificCause().getMessage()));
+                }
+            }
+            int written = succeeded;
+            transactionTemplate.executeWithoutResult(status -> {
+                importRowErrorRepository.saveAll(errors);
+                advanceCheckpoint(jobId, lastRowNumber, written, errors.size());
+            });
+        }
+    }
+
+    /**
+     * Writes the rows whose courses all have a free seat and returns the ones that were skipped. Seats
+     * are taken after the user and student inserts, as in {@code StudentServiceImpl}, so the course
+     * rows are locked for as short a time as possible.
+     */
+    private List<StudentRow> writeStudents(List<StudentRow> rows, List<String> hashes) {
+        List<User> users = new ArrayList<>(rows.size());
+        List<Student> students = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            User user = User.builder()
+                    .username(rows.get(i).username())
+                    .password(hashes.get(i))
+                    .role("STUDENT")
+                    .build();
+            users.add(user);
+            students.add(Student.builder().owner(user).build());
+        }
+        userRepository.saveAll(users);
+        studentRepository.saveAll(students);
+        // Student rows must exist before the join table rows reference them
+        studentRepository.flush();
+
+        boolean[] granted = enrollmentJdbcRepository.allocateSeats(rows.stream().map(StudentRow::courseIds).toList());
+        List<long[]> enrollments = new ArrayList<>();
+        List<StudentRow> full = new ArrayList<>();
+        List<Student> fullStudents = new ArrayList<>();
+        List<User> fullUsers = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (granted[i]) {
+                for (Long courseId : rows.get(i).courseIds()) {
+                    enrollments.add(new long[]{students.get(i).getId(), courseId});
+                }
+            } else {
+                full.add(rows.get(i));
+                fullStudents.add(students.get(i));
+                fullUsers.add(users.get(i));
+            }
+        }
+        enrollmentJdbcRepository.insertEnrollments(enrollments);
+
+        // A row is all or nothing: drop the accounts of students who did not get every seat
+        if (!full.isEmpty()) {
+            studentRepository.deleteAllInBatch(fullStudents);
+            userRepository.deleteAllInBatch(fullUsers);
+        }
+        return full;
+    }
+
+    private void importCourses(Long jobId, List<ImportRow> rows, long lastRowNumber) {
+        List<ImportRowError> errors = new ArrayList<>();
+        List<Course> courses = new ArrayList<>();
+
+        for (ImportRow row : rows) {
+            if (row.error() != null) {
+                errors.add(error(jobId, row.number(), row.error()));
+                continue;
+            }
+            String title = text(row.values(), "title");
+            if (title == null || title.isBlank()) {
+                errors.add(error(jobId, row.number(), "Title is required"));
+                continue;
+            }
+            Integer capacity;
+            try {
+                capacity = capacity(row.values());
+            } catch (NumberFormatException e) {
+                errors.add(error(jobId, row.number(), "Invalid capacity"));
+                continue;
+            }
+            courses.add(Course.builder()
+                    .title(title)
+                    .description(text(row.values(), "description"))
+                    .capacity(capacity)
+                    .build());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            courseRepository.saveAll(courses);
+            if (!courses.isEmpty()) {
+                catalogVersionService.bump();
+            }
+            importRowErrorRepository.saveAll(errors);
+            advanceCheckpoint(jobId, lastRowNumber, courses.size(), errors.size());
+            searchIndex.addAll(courses);
+        });
+    }
+
+    private List<String> hashAll(List<StudentRow> rows) {
+        List<Future<String>> futures = rows.stream()
+                .map(row -> hashingPool.submit(() -> passwordEncoder.encode(row.password())))
+                .toList();
+        List<String> hashes = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return hashes;
+    }
+
+    // Throwing rolls the chunk back when another node has taken the job over
+    private void advanceCheckpoint(Long jobId, long lastRowNumber, long succeeded, long failed) {
+        int updated = importJobRepository.advanceCheckpoint(jobId, nodeId, ImportStatus.RUNNING,
+                lastRowNumber, succeeded, failed, Instant.now());
+        if (updated == 0) {
+            throw new LeaseLostException("Import ID: " + jobId + " is no longer running on node " + nodeId);
+        }
+    }
+
+    private void updateStatus(Long jobId, ImportStatus status, String message) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            ImportJob job = findJob(jobId);
+            if (!nodeId.equals(job.getOwnerNode()) || !ACTIVE.contains(job.getStatus())) {
+                logger.warn("Not marking import ID: {} as {}; it is {} on node {}",
+                        jobId, status, job.getStatus(), job.getOwnerNode());
+                return;
+            }
+            job.setStatus(status);
+            job.setMessage(message);
+            job.setUpdatedAt(Instant.now());
+        });
+    }
+
+    private ImportJob findJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> {
+                    logger.error("Import not found with ID: {}", jobId);
+                    return new ResourceNotFoundException("Import not found");
+                });
+    }
+
+    private static ImportRowError error(Long jobId, long rowNumber, String message) {
+        // Database messages can be longer than the column
+        String stored = message != null && message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH)
+                : message;
+        return ImportRowError.builder()
+                .jobId(jobId)
+                .rowNumber(rowNumber)
+                .message(stored)
+                .build();
+    }
+
+    private static String text(Map<String, Object> values, String column) {
+        Object value = values.get(column);
+        return value == null ? null : value.toString().trim();
+    }
+
+    // NDJSON rows carry a JSON array; CSV rows a ';'-separated list
+    private static Set<Long> courseIds(Map<String, Object> values) {
+        Object value = values.get("courseIds");
+        Set<Long> ids = new LinkedHashSet<>();
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(id -> ids.add(Long.valueOf(id.toString().trim())));
+        } else if (value != null && !value.toString().isBlank()) {
+            for (String id : value.toString().split(";")) {
+                if (!id.isBlank()) {
+                    ids.add(Long.valueOf(id.trim()));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Empty means unlimited
+    private static Integer capacity(Map<String, Object> values) {
+        String value = text(values, "capacity");
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int capacity = Integer.parseInt(value);
+        if (capacity < 0) {
+            throw new NumberFormatException("Capacity must not be negative");
+        }
+        return capacity;
+    }
+
+    private static String extensionOf(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.endsWith(".csv")) {
+            return ".csv";
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return ".ndjson";
+        }
+        throw new IllegalArgumentException("Only .csv and .ndjson files can be imported");
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class LeaseLostException extends IllegalStateException {
+        LeaseLostException(String message) {
+            super(message);
+        }
+    }
+
+    private record ImportRow(long number, Map<String, Object> values, String error) {
+    }
+
+    private record StudentRow(long number, String username, String password, Set<Long> courseIds) {
+    }
+}
@@ -1,43 +1,77 @@
 package com.example.school.service.impl;
 
+import com.example.school.dto.BulkEnrollmentResponse;
+import com.example.school.dto.CacheValidators;
+import com.example.school.dto.CourseDTO;
+import com.example.school.dto.EnrollmentRequest;
+import com.example.school.dto.EnrollmentResult;
+import com.example.school.dto.PageResponse;
 import com.example.school.dto.StudentResponse;
 import com.example.school.entity.Course;
 import com.example.school.entity.Student;
-import com.example.school.entity.User;
+import com.example.school.exception.CourseFullException;
 import com.example.school.exception.ResourceNotFoundException;
 import com.example.school.repository.CourseRepository;
+import com.example.school.repository.EnrollmentJdbcRepository;
+import com.example.school.repository.StudentCourseRow;
 import com.example.school.repository.StudentRepository;
-import com.example.school.repository.UserRepository;
+import com.example.school.repository.StudentVersionRow;
+import com.example.school.security.StudentIdentityResolver;
 import com.example.school.service.StudentService;
+import com.example.school.util.CursorUtil;
+import com.example.school.util.ETagUtil;
 import com.example.school.util.MapperUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("student.service")
 public class StudentServiceImpl implements StudentService {
 
     private static final Logger logger = LoggerFactory.getLogger(StudentServiceImpl.class);
 
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
-    private final UserRepository userRepository;
+    private final StudentIdentityResolver studentIdentityResolver;
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final ObjectMapper objectMapper;
 
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudent(Long id, String requesterUsername) {
-        logger.info("Fetching student with ID: {} for user: {}", id, requesterUsername);
+        logger.debug("Fetching student with ID: {} for user: {}", id, requesterUsername);
         Student student = getOwnedStudentOrThrow(id, requesterUsername);
         return MapperUtil.toStudentResponse(student);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudentById(Long id) {
-        logger.info("Fetching student by ID: {}", id);
+        logger.debug("Fetching student by ID: {}", id);
         return MapperUtil.toStudentResponse(
                 studentRepository.findById(id)
                         .orElseThrow(() -> {
@@ -48,46 +82,110 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public StudentResponse getStudentByUsername(String username) {
-        logger.info("Fetching student for username: {}", username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    logger.error("User  not found with username: {}", username);
-                    return new ResourceNotFoundException("User  not found");
-                });
-
-        Student student = studentRepository.findByOwner(user)
-                .orElseThrow(() -> {
-                    logger.error("Student not found for user: {}", username);
-                    return new ResourceNotFoundException("Student not found");
-                });
+        logger.debug("Fetching student for username: {}", username);
+        Student student = getStudentForUsername(username);
 
         return MapperUtil.toStudentResponse(student);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CacheValidators getStudentValidators(String username) {
+        Long studentId = studentIdentityResolver.resolveStudentId(username);
+        StudentVersionRow row = studentRepository.findVersionById(studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+        return new CacheValidators(ETagUtil.strong("student", studentId, row.getVersion()), row.getUpdatedAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<StudentResponse> getAllStudents() {
-        logger.info("Fetching all students");
-        return studentRepository.findAll()
+        logger.debug("Fetching all students");
+        return studentRepository.findAllWithOwnerAndCourses()
                 .stream()
                 .map(MapperUtil::toStudentResponse)
                 .toList();
     }
 
     @Override
-    public StudentResponse addCoursesToStudent(String username, List<Long> courseIds) {
-        logger.info("Adding courses to student with username: {}", username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    logger.error("User  not found with username: {}", username);
-                    return new ResourceNotFoundException("User  not found");
-                });
+    @Transactional(readOnly = true)
+    public PageResponse<StudentResponse> getStudentsPage(String after, Integer limit) {
+        int pageSize = CursorUtil.clampLimit(limit);
+        Long afterId = CursorUtil.decode(after);
+        logger.debug("Fetching students page after ID: {} with limit: {}", afterId, pageSize);
+
+        // Fetch one extra id to know whether another page exists
+        List<Long> ids = studentRepository.findIdsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+
+        List<StudentResponse> items = pageIds.isEmpty()
+                ? List.of()
+                : studentRepository.findAllWithOwnerAndCoursesByIdIn(pageIds)
+                        .stream()
+                        .map(MapperUtil::toStudentResponse)
+                        .toList();
+
+        String next = hasNext ? CursorUtil.encode(pageIds.get(pageIds.size() - 1)) : null;
+        return new PageResponse<>(items, next);
+    }
 
-        Student student = studentRepository.findByOwner(user)
-                .orElseThrow(() -> {
-                    logger.error("Student not found for user: {}", username);
-                    return new ResourceNotFoundException("Student not found");
-                });
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStudents(OutputStream outputStream) {
+        logger.info("Exporting all students as NDJSON");
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        long exported = 0;
+
+        try (Stream<StudentCourseRow> rows = studentRepository.streamAllWithCourses()) {
+            Iterator<StudentCourseRow> iterator = rows.iterator();
+            StudentResponse current = null;
+
+            while (iterator.hasNext()) {
+                StudentCourseRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.getStudentId())) {
+                    if (current != null) {
+                        writeLine(writer, outputStream, current);
+                        exported++;
+                    }
+                    current = StudentResponse.builder()
+                            .id(row.getStudentId())
+                            .ownerUsername(row.getOwnerUsername())
+                            .courses(new ArrayList<>())
+                            .build();
+                }
+                if (row.getCourseId() != null) {
+                    current.getCourses().add(CourseDTO.builder()
+                            .id(row.getCourseId())
+                            .title(row.getCourseTitle())
+                            .description(row.getCourseDescription())
+                            .build());
+                }
+            }
+
+            if (current != null) {
+                writeLine(writer, outputStream, current);
+                exported++;
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Exported {} students", exported);
+    }
+
+    private void writeLine(ObjectWriter writer, OutputStream outputStream, StudentResponse student) throws IOException {
+        outputStream.write(writer.writeValueAsBytes(student));
+        outputStream.write('\n');
+    }
+
+    @Override
+    @Transactional
+    public StudentResponse addCoursesToStudent(String username, List<Long> courseIds) {
+        logger.debug("Adding courses to student with username: {}", username);
+        Student student = getStudentForUsername(username);
 
         List<Course> newCourses = courseRepository.findAllById(courseIds);
 
@@ -96,24 +194,22 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("One or more course IDs are invalid.");
         }
 
-        if (student.getCourses() == null || student.getCourses().isEmpty()) {
-            logger.info("Setting courses for the first time for student: {}", username);
-            student.setCourses(newCourses);
-        } else {
-            List<Course> updatedCourses = student.getCourses();
-            newCourses.stream()
-                    .filter(course -> !updatedCourses.contains(course))
-                    .forEach(updatedCourses::add);
-            logger.info("Updated courses for student: {}", username);
-        }
+        // Set semantics: already enrolled courses are skipped and only new rows are inserted
+        List<Long> added = newCourses.stream()
+                .filter(student.getCourses()::add)
+                .map(Course::getId)
+                .toList();
+        studentRepository.saveAndFlush(student);
+        allocateSeatsOrThrow(added);
+        logger.debug("Updated courses for student: {}", username);
 
-        studentRepository.save(student);
         return MapperUtil.toStudentResponse(student);
     }
 
     @Override
+    @Transactional
     public StudentResponse enrollCoursesByAdmin(Long studentId, List<Long> courseIds) {
-        logger.info("Admin enrolling courses for student ID: {}", studentId);
+        logger.debug("Admin enrolling courses for student ID: {}", studentId);
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> {
                     logger.error("Student not found with ID: {}", studentId);
@@ -127,23 +223,137 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("One or more course IDs are invalid.");
         }
 
-        if (student.getCourses() == null || student.getCourses().isEmpty()) {
-            logger.info("Setting courses for the first time for student ID: {}", studentId);
-            student.setCourses(newCourses);
-        } else {
-            List<Course> updatedCourses = student.getCourses();
-            newCourses.stream()
-                    .filter(course -> !updatedCourses.contains(course))
-                    .forEach(updatedCourses::add);
-            logger.info("Updated courses for student ID: {}", studentId);
-        }
+        // Set semantics: already enrolled courses are skipped and only new rows are inserted
+        List<Long> added = newCourses.stream()
+                .filter(student.getCourses()::add)
+                .map(Course::getId)
+                .toList();
+        studentRepository.saveAndFlush(student);
+        allocateSeatsOrThrow(added);
+        logger.debug("Updated courses for student ID: {}", studentId);
 
-        studentRepository.save(student);
         return MapperUtil.toStudentResponse(student);
     }
 
+    @Override
+    @Transactional
+    public BulkEnrollmentResponse bulkEnrollCoursesByAdmin(List<EnrollmentRequest> requests) {
+        logger.info("Admin bulk enrolling {} students", requests.size());
+
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (EnrollmentRequest request : requests) {
+            if (request.getStudentId() != null) {
+                studentIds.add(request.getStudentId());
+            }
+            if (request.getCourseIds() != null) {
+                request.getCourseIds().stream().filter(Objects::nonNull).forEach(courseIds::add);
+            }
+        }
+
+        Set<Long> existingStudents = enrollmentJdbcRepository.findExistingStudentIds(studentIds);
+        Set<Long> existingCourses = enrollmentJdbcRepository.findExistingCourseIds(courseIds);
+        Map<Long, Set<Long>> enrolled = enrollmentJdbcRepository.findCourseIdsByStudentIds(existingStudents);
+
+        List<EnrollmentResult> results = new ArrayList<>(requests.size());
+        List<long[]> inserts = new ArrayList<>();
+
+        for (EnrollmentRequest request : requests) {
+            Long studentId = request.getStudentId();
+            if (studentId == null || !existingStudents.contains(studentId)) {
+                results.add(failure(studentId, "Student not found"));
+                continue;
+            }
+            if (request.getCourseIds() == null || request.getCourseIds().isEmpty()) {
+                results.add(failure(studentId, "No course IDs given"));
+                continue;
+            }
+            if (!existingCourses.containsAll(request.getCourseIds())) {
+                results.add(failure(studentId, "One or more course IDs are invalid."));
+                continue;
+            }
+
+            Set<Long> current = enrolled.computeIfAbsent(studentId, id -> new HashSet<>());
+            int added = 0;
+            for (Long courseId : new LinkedHashSet<>(request.getCourseIds())) {
+                if (current.add(courseId)) {
+                    inserts.add(new long[]{studentId, courseId});
+                    added++;
+                }
+            }
+            results.add(EnrollmentResult.builder()
+                    .studentId(studentId)
+                    .success(true)
+                    .enrolled(added)
+                    .build());
+        }
+
+        List<long[]> granted = allocateBulkSeats(inserts, results);
+        enrollmentJdbcRepository.insertEnrollments(granted);
+
+        int succeeded = (int) results.stream().filter(EnrollmentResult::isSuccess).count();
+        logger.info("Bulk enrollment finished: {} succeeded, {} failed, {} rows inserted",
+                succeeded, results.size() - succeeded, granted.size());
+        return BulkEnrollmentResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Takes the seats for every successful request; a request that cannot get all of its courses is
+     * turned into a failure and its rows are dropped.
+     */
+    private List<long[]> allocateBulkSeats(List<long[]> inserts, List<EnrollmentResult> results) {
+        Map<Long, List<Long>> courseIdsByStudent = new LinkedHashMap<>();
+        for (long[] pair : inserts) {
+            courseIdsByStudent.computeIfAbsent(pair[0], id -> new ArrayList<>()).add(pair[1]);
+        }
+        List<Long> studentIds = new ArrayList<>(courseIdsByStudent.keySet());
+        boolean[] granted = enrollmentJdbcRepository.allocateSeats(new ArrayList<>(courseIdsByStudent.values()));
+
+        Set<Long> full = new HashSet<>();
+        for (int i = 0; i < granted.length; i++) {
+            if (!granted[i]) {
+                full.add(studentIds.get(i));
+            }
+        }
+        if (full.isEmpty()) {
+            return inserts;
+        }
+        results.replaceAll(result -> result.isSuccess() && full.contains(result.getStudentId())
+                ? failure(result.getStudentId(), "One or more courses are full.")
+                : result);
+        return inserts.stream().filter(pair -> !full.contains(pair[0])).toList();
+    }
+
+    // Seats are taken after the join rows are flushed, so the course row is locked only until commit
+    private void allocateSeatsOrThrow(List<Long> courseIds) {
+        if (!courseIds.isEmpty() && !enrollmentJdbcRepository.allocateSeats(List.of(courseIds))[0]) {
+            throw new CourseFullException("One or more courses are full.");
+        }
+    }
+
+    private EnrollmentResult failure(Long studentId, String message) {
+        return EnrollmentResult.builder()
+                .studentId(studentId)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    private Student getStudentForUsername(String username) {
+        Long studentId = studentIdentityResolver.resolveStudentId(username);
+        return studentRepository.findById(studentId)
+                .orElseThrow(() -> {
+                    logger.error("Student not found for user: {}", username);
+                    return new ResourceNotFoundException("Student not found");
+                });
+    }
+
     private Student getOwnedStudentOrThrow(Long id, String username) {
-        logger.info("Checking ownership of student ID: {} for user: {}", id, username);
+        logger.debug("Checking ownership of student ID: {} for user: {}", id, username);
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> {
                     logger.error("Student not found with ID: {}", id);
@@ -159,19 +369,10 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Transactional
     public StudentResponse removeCourseForStudent(String username, Long courseId) {
-        logger.info("Removing course ID: {} for student with username: {}", courseId, username);
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> {
-                    logger.error("User  not found with username: {}", username);
-                    return new ResourceNotFoundException("User  not found");
-                });
-
-        Student student = studentRepository.findByOwner(user)
-                .orElseThrow(() -> {
-                    logger.error("Student not found for user: {}", username);
-                    return new ResourceNotFoundException("Student not found");
-                });
+        logger.debug("Removing course ID: {} for student with username: {}", courseId, username);
+        Student student = getStudentForUsername(username);
 
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> {
@@ -184,14 +385,16 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("Course not found in student's list");
         }
 
-        studentRepository.save(student);
-        logger.info("Course ID: {} removed for student with username: {}", courseId, username);
+        studentRepository.saveAndFlush(student);
+        enrollmentJdbcRepository.releaseSeats(List.of(courseId));
+        logger.debug("Course ID: {} removed for student with username: {}", courseId, username);
         return MapperUtil.toStudentResponse(student);
     }
 
     @Override
+    @Transactional
     public StudentResponse removeCourseByAdmin(Long studentId, Long courseId) {
-        logger.info("Admin removing course ID: {} for student ID: {}", courseId, studentId);
+        logger.debug("Admin removing course ID: {} for student ID: {}", courseId, studentId);
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> {
                     logger.error("Student not found with ID: {}", studentId);
@@ -209,8 +412,9 @@ public class StudentServiceImpl implements StudentService {
             throw new ResourceNotFoundException("Course not found in student's list");
         }
 
-        studentRepository.save(student);
-        logger.info("Course ID: {} removed for student ID: {}", courseId, studentId);
+        studentRepository.saveAndFlush(student);
+        enrollmentJdbcRepository.releaseSeats(List.of(courseId));
+        logger.debug("Course ID: {} removed for student ID: {}", courseId, studentId);
         return MapperUtil.toStudentResponse(student);
     }
 }
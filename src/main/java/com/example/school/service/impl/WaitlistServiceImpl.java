@@ -0,0 +1,187 @@
+package com.example.school.service.impl;
+
+import com.example.school.dto.WaitlistEntryResponse;
+import com.example.school.entity.Course;
+import com.example.school.entity.WaitlistEntry;
+import com.example.school.exception.ResourceNotFoundException;
+import com.example.school.repository.CourseRepository;
+import com.example.school.repository.EnrollmentJdbcRepository;
+import com.example.school.repository.WaitlistEntryRepository;
+import com.example.school.repository.WaitlistJdbcRepository;
+import com.example.school.security.StudentIdentityResolver;
+import com.example.school.service.WaitlistService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Waitlist for capped courses. Joining only inserts a row; seats are handed out by
+ * {@link #promoteWaitlisted()}, which claims courses with {@code FOR UPDATE SKIP LOCKED} so that
+ * each course is promoted by exactly one worker at a time, strictly in arrival order.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final WaitlistJdbcRepository waitlistJdbcRepository;
+    private final EnrollmentJdbcRepository enrollmentJdbcRepository;
+    private final CourseRepository courseRepository;
+    private final StudentIdentityResolver studentIdentityResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    // Refreshed by every promotion run, so scrapes never hit the database
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicReference<Instant> oldest = new AtomicReference<>();
+    private final Counter promotions;
+
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository,
+                               WaitlistJdbcRepository waitlistJdbcRepository,
+                               EnrollmentJdbcRepository enrollmentJdbcRepository,
+                               CourseRepository courseRepository,
+                               StudentIdentityResolver studentIdentityResolver,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${waitlist.promotion.batch-size:50}") int batchSize) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.waitlistJdbcRepository = waitlistJdbcRepository;
+        this.enrollmentJdbcRepository = enrollmentJdbcRepository;
+        this.courseRepository = courseRepository;
+        this.studentIdentityResolver = studentIdentityResolver;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+
+        Gauge.builder("waitlist.depth", depth, AtomicLong::get)
+                .description("Students waiting for a seat")
+                .register(meterRegistry);
+        TimeGauge.builder("waitlist.oldest.age", oldest, TimeUnit.SECONDS, WaitlistServiceImpl::ageSeconds)
+                .description("How long the longest-waiting student has been queued")
+                .register(meterRegistry);
+        this.promotions = Counter.builder("waitlist.promotions")
+                .description("Students moved from a waitlist into a seat")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public WaitlistEntryResponse joinWaitlist(String username, Long courseId) {
+        Long studentId = studentIdentityResolver.resolveStudentId(username);
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
+        if (course.getCapacity() == null) {
+            throw new IllegalArgumentException("Course has no seat limit; enroll directly");
+        }
+        if (enrollmentJdbcRepository.findCourseIdsByStudentIds(List.of(studentId))
+                .getOrDefault(studentId, Set.of()).contains(courseId)) {
+            throw new IllegalArgumentException("Already enrolled in this course");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.findByCourseIdAndStudentId(courseId, studentId)
+                .orElseGet(() -> waitlistEntryRepository.saveAndFlush(WaitlistEntry.builder()
+                        .courseId(courseId)
+                        .studentId(studentId)
+                        // Stored with microsecond precision; keep the in-memory copy comparable for findPosition
+                        .createdAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+                        .build()));
+        logger.debug("Student ID: {} waiting for course ID: {}", studentId, courseId);
+        return toResponse(entry);
+    }
+
+    @Override
+    @Transactional
+    public void leaveWaitlist(String username, Long courseId) {
+        Long studentId = studentIdentityResolver.resolveStudentId(username);
+        WaitlistEntry entry = waitlistEntryRepository.findByCourseIdAndStudentId(courseId, studentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Not on the waitlist for this course"));
+        waitlistEntryRepository.delete(entry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryResponse> getWaitlist(String username) {
+        Long studentId = studentIdentityResolver.resolveStudentId(username);
+        return waitlistEntryRepository.findByStudentIdOrderByCreatedAt(studentId)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    @Override
+    public void promoteWaitlisted() {
+        int promoted = 0;
+        try {
+            Round round;
+            do {
+                round = transactionTemplate.execute(status -> promoteRound());
+                promoted += round.promoted();
+                promotions.increment(round.promoted());
+            } while (round.consumed() > 0);
+        } catch (RuntimeException e) {
+            logger.error("Waitlist promotion failed after {} promotions", promoted, e);
+        }
+        if (promoted > 0) {
+            logger.info("Promoted {} students from waitlists", promoted);
+        }
+
+        WaitlistJdbcRepository.Depth current = waitlistJdbcRepository.depth();
+        depth.set(current.entries());
+        oldest.set(current.oldest());
+    }
+
+    private Round promoteRound() {
+        int consumed = 0;
+        int promoted = 0;
+        for (WaitlistJdbcRepository.FreeSeats course : waitlistJdbcRepository.claimCoursesWithFreeSeats(batchSize)) {
+            List<WaitlistJdbcRepository.Waiting> waiting = waitlistJdbcRepository.findWaiting(course.courseId(), course.seats());
+            List<Long> entryIds = new ArrayList<>(waiting.size());
+            int seats = 0;
+            for (WaitlistJdbcRepository.Waiting entry : waiting) {
+                entryIds.add(entry.entryId());
+                // Someone enrolled by an admin in the meantime keeps their seat and just leaves the queue
+                if (enrollmentJdbcRepository.insertEnrollment(entry.studentId(), course.courseId())) {
+                    seats++;
+                }
+            }
+            enrollmentJdbcRepository.takeSeats(course.courseId(), seats);
+            waitlistJdbcRepository.deleteEntries(entryIds);
+            consumed += entryIds.size();
+            promoted += seats;
+        }
+        return new Round(consumed, promoted);
+    }
+
+    private WaitlistEntryResponse toResponse(WaitlistEntry entry) {
+        return WaitlistEntryResponse.builder()
+                .courseId(entry.getCourseId())
+                .position(waitlistEntryRepository.findPosition(entry.getCourseId(), entry.getCreatedAt(), entry.getId()))
+                .joinedAt(entry.getCreatedAt())
+                .build();
+    }
+
+    private static double ageSeconds(AtomicReference<Instant> oldest) {
+        Instant since = oldest.get();
+        return since == null ? 0 : Duration.between(since, Instant.now()).toSeconds();
+    }
+
+    private record Round(int consumed, int promoted) {
+    }
+}
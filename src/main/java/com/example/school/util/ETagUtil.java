@@ -0,0 +1,24 @@
+package com.example.school.util;
+
+import org.springframework.http.CacheControl;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class ETagUtil {
+
+    /**
+     * Lets clients keep a response but revalidate it on every use, so conditional polls can get a 304.
+     * Replaces Spring Security's default {@code no-store}, under which clients never keep the body.
+     */
+    public static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    /**
+     * Builds a strong ETag such as {@code "student-12-3"} from a resource kind and its version parts.
+     */
+    public static String strong(String kind, long... parts) {
+        return Arrays.stream(parts)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining("-", "\"" + kind + "-", "\""));
+    }
+}
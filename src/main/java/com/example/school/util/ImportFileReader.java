@@ -0,0 +1,125 @@
+package com.example.school.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an import file one row at a time. CSV files need a header line; NDJSON files hold one
+ * JSON object per line. Blank lines are ignored and do not count as rows.
+ */
+public class ImportFileReader implements Closeable {
+
+    private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {};
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final List<String> header;
+
+    private ImportFileReader(BufferedReader reader, ObjectMapper objectMapper, List<String> header) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.header = header;
+    }
+
+    public static ImportFileReader open(Path path, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        if (path.getFileName().toString().toLowerCase().endsWith(".csv")) {
+            String headerLine = nextNonBlank(reader);
+            List<String> header = headerLine == null ? List.of() : parseCsvLine(headerLine).stream()
+                    .map(String::trim)
+                    .toList();
+            return new ImportFileReader(reader, objectMapper, header);
+        }
+        return new ImportFileReader(reader, objectMapper, null);
+    }
+
+    /**
+     * Returns the next row, or null at end of file. Malformed rows come back as an
+     * {@link IllegalArgumentException} so the caller can record them and carry on.
+     */
+    public Map<String, Object> next() {
+        try {
+            String line = nextNonBlank(reader);
+            if (line == null) {
+                return null;
+            }
+            return header == null ? parseJsonLine(line) : toRow(parseCsvLine(line));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, Object> parseJsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, ROW_TYPE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON row");
+        }
+    }
+
+    private Map<String, Object> toRow(List<String> values) {
+        if (values.size() > header.size()) {
+            throw new IllegalArgumentException("Row has more columns than the header");
+        }
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return row;
+    }
+
+    private static String nextNonBlank(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    // Single-line RFC 4180: commas inside double quotes, "" as an escaped quote
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
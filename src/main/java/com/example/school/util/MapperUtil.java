@@ -2,10 +2,15 @@ package com.example.school.util;
 
 import com.example.school.dto.CourseDTO;
 import com.example.school.dto.CourseResponse;
+import com.example.school.dto.ImportJobResponse;
+import com.example.school.dto.ImportRowErrorDTO;
 import com.example.school.dto.StudentResponse;
 import com.example.school.entity.Course;
+import com.example.school.entity.ImportJob;
+import com.example.school.entity.ImportRowError;
 import com.example.school.entity.Student;
 
+import java.util.Collection;
 import java.util.List;
 
 public class MapperUtil {
@@ -18,7 +23,7 @@ public class MapperUtil {
                 .build();
     }
 
-    private static List<CourseDTO> toCourseDTOs(List<Course> courses) {
+    private static List<CourseDTO> toCourseDTOs(Collection<Course> courses) {
         return courses.stream()
                 .map(course -> CourseDTO.builder()
                         .id(course.getId())
@@ -32,6 +37,25 @@ public class MapperUtil {
                 .id(course.getId())
                 .title(course.getTitle())
                 .description(course.getDescription())
+                .capacity(course.getCapacity())
                 .build();
     }
-}
\ No newline at end of file
+
+    public static ImportJobResponse toImportJobResponse(ImportJob job, List<ImportRowError> errors) {
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .kind(job.getKind().name())
+                .status(job.getStatus().name())
+                .fileName(job.getFileName())
+                .processedRows(job.getProcessedRows())
+                .succeeded(job.getSucceeded())
+                .failed(job.getFailed())
+                .message(job.getMessage())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .errors(errors.stream()
+                        .map(error -> new ImportRowErrorDTO(error.getRowNumber(), error.getMessage()))
+                        .toList())
+                .build();
+    }
+}
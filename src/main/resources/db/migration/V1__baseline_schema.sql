@@ -0,0 +1,104 @@
+-- Schema as mapped by the entities. Every statement is idempotent so databases that were
+-- created by ddl-auto (baselined at version 0) are brought up to date instead of failing.
+
+create sequence if not exists users_seq start with 1 increment by 50;
+create sequence if not exists student_seq start with 1 increment by 50;
+create sequence if not exists course_seq start with 1 increment by 50;
+create sequence if not exists waitlist_entry_seq start with 1 increment by 50;
+create sequence if not exists import_job_seq start with 1 increment by 1;
+create sequence if not exists import_row_error_seq start with 1 increment by 50;
+
+create table if not exists users (
+    id bigint not null primary key,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    role varchar(255) not null
+);
+
+create table if not exists course (
+    id bigint not null primary key,
+    title varchar(255),
+    description varchar(255),
+    capacity integer,
+    enrolled_count integer default 0 not null,
+    version bigint default 0 not null
+);
+
+create table if not exists student (
+    id bigint not null primary key,
+    name varchar(255),
+    owner_username varchar(255),
+    owner_id bigint references users,
+    version bigint default 0 not null
+);
+
+create table if not exists student_courses (
+    student_id bigint not null references student,
+    course_id bigint not null references course
+);
+
+create table if not exists catalog_version (
+    id bigint not null primary key,
+    version bigint not null,
+    updated_at timestamp(6) not null
+);
+
+create table if not exists waitlist_entry (
+    id bigint not null primary key,
+    course_id bigint not null,
+    student_id bigint not null,
+    created_at timestamp(6) not null,
+    unique (course_id, student_id)
+);
+
+create table if not exists import_job (
+    id bigint not null primary key,
+    kind varchar(255) not null check (kind in ('STUDENTS', 'COURSES')),
+    status varchar(255) not null check (status in ('PENDING', 'RUNNING', 'COMPLETED', 'FAILED', 'INTERRUPTED')),
+    file_name varchar(255),
+    storage_path varchar(255) not null,
+    processed_rows bigint not null,
+    succeeded bigint not null,
+    failed bigint not null,
+    message varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+create table if not exists import_row_error (
+    id bigint not null primary key,
+    job_id bigint not null,
+    row_number bigint not null,
+    message varchar(255)
+);
+
+-- Columns added after the first release. Checked first rather than "add column if not exists",
+-- which raises a notice (and a Flyway warning) for every column a fresh database already has.
+do $$
+begin
+    if not exists (select 1 from information_schema.columns where table_schema = current_schema() and table_name = 'course'
+                   and column_name = 'capacity') then
+        alter table course add column capacity integer;
+    end if;
+    if not exists (select 1 from information_schema.columns where table_schema = current_schema() and table_name = 'course'
+                   and column_name = 'enrolled_count') then
+        alter table course add column enrolled_count integer default 0 not null;
+    end if;
+    if not exists (select 1 from information_schema.columns where table_schema = current_schema() and table_name = 'course'
+                   and column_name = 'version') then
+        alter table course add column version bigint default 0 not null;
+    end if;
+    if not exists (select 1 from information_schema.columns where table_schema = current_schema() and table_name = 'student'
+                   and column_name = 'version') then
+        alter table student add column version bigint default 0 not null;
+    end if;
+end $$;
+
+-- Ids used to come from identity columns; move the sequences past every id already handed out.
+-- The pooled optimizer allocates up to one increment below the value it reads, hence the margin.
+select setval('users_seq', max(id) + 50) from users having max(id) + 50 > (select last_value from users_seq);
+select setval('student_seq', max(id) + 50) from student having max(id) + 50 > (select last_value from student_seq);
+select setval('course_seq', max(id) + 50) from course having max(id) + 50 > (select last_value from course_seq);
+select setval('waitlist_entry_seq', max(id) + 50) from waitlist_entry having max(id) + 50 > (select last_value from waitlist_entry_seq);
+select setval('import_job_seq', max(id) + 1) from import_job having max(id) + 1 > (select last_value from import_job_seq);
+select setval('import_row_error_seq', max(id) + 50) from import_row_error having max(id) + 50 > (select last_value from import_row_error_seq);
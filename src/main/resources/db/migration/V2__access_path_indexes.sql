@@ -0,0 +1,34 @@
+-- Indexes for the queries the repositories actually run.
+
+-- Older schemas have no key on the join table; drop duplicate pairs before making it unique
+delete from student_courses a
+    using student_courses b
+    where a.ctid < b.ctid
+      and a.student_id = b.student_id
+      and a.course_id = b.course_id;
+
+-- Uniqueness, Student.courses loads and enrollment lookups by student (also the ON CONFLICT target)
+create unique index if not exists uk_student_courses_student_course on student_courses (student_id, course_id);
+-- Course rosters and per-course counts
+create index if not exists idx_student_courses_course_student on student_courses (course_id, student_id);
+
+-- findByOwner and the username -> student id lookup
+create index if not exists idx_student_owner on student (owner_id);
+
+-- Queue order for promotion and positions; the unique (course_id, student_id) covers single lookups
+create index if not exists idx_waitlist_entry_course_created on waitlist_entry (course_id, created_at, id);
+create index if not exists idx_waitlist_entry_student_created on waitlist_entry (student_id, created_at);
+
+create index if not exists idx_import_row_error_job_row on import_row_error (job_id, row_number);
+
+-- Same expression as CourseRepository.searchFullText, so the cold-index fallback can use it
+create index if not exists idx_course_search on course
+    using gin (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(description, '')));
+
+-- Counters and singleton rows that ddl-auto never filled in
+update course c
+    set enrolled_count = (select count(*) from student_courses sc where sc.course_id = c.id);
+
+insert into catalog_version (id, version, updated_at)
+    values (1, 0, now())
+    on conflict (id) do nothing;
@@ -0,0 +1,21 @@
+-- Registration recognises a taken username by this constraint's name. Depending on how the table was
+-- created it is called users_username_key or a generated uk_...; give it one name everywhere.
+do $$
+declare
+    existing text;
+begin
+    select con.conname into existing
+    from pg_constraint con
+    join pg_attribute att on att.attrelid = con.conrelid and att.attnum = con.conkey[1]
+    where con.conrelid = 'users'::regclass
+      and con.contype = 'u'
+      and array_length(con.conkey, 1) = 1
+      and att.attname = 'username'
+    limit 1;
+
+    if existing is null then
+        alter table users add constraint uk_users_username unique (username);
+    elsif existing <> 'uk_users_username' then
+        execute format('alter table users rename constraint %I to uk_users_username', existing);
+    end if;
+end $$;
@@ -0,0 +1,5 @@
+-- The node running an import renews lease_expires_at while it works; other nodes only interrupt a
+-- pending/running job once its lease has lapsed. Rows from before this change have no lease and
+-- count as expired.
+alter table import_job add column if not exists owner_node varchar(255);
+alter table import_job add column if not exists lease_expires_at timestamp(6);
@@ -0,0 +1,7 @@
+-- Last-Modified for GET /api/students/me. Kept in step with student.version: Hibernate sets it on every
+-- versioned update and the JDBC enrollment writes set it with their version bump. Times are UTC, like
+-- every other timestamp column.
+alter table student add column if not exists updated_at timestamp(6);
+update student set updated_at = now() at time zone 'utc' where updated_at is null;
+alter table student alter column updated_at set default (now() at time zone 'utc');
+alter table student alter column updated_at set not null;
@@ -0,0 +1,120 @@
+package com.example.school.config;
+
+import com.example.school.cache.CourseCatalogCache;
+import com.example.school.dto.CourseRequest;
+import com.example.school.dto.CourseResponse;
+import com.example.school.search.CourseSearchIndex;
+import com.example.school.service.CourseService;
+import com.example.school.support.MigratedPostgres;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application with a primary and a separate replica database holding different rows,
+ * so every read shows which of the two it was routed to.
+ */
+@SpringBootTest(properties = {
+        "waitlist.promotion.enabled=false",
+        "enrollment.reconcile.enabled=false"
+})
+class ReadReplicaRoutingTest {
+
+    // Well above what course_seq hands out, so created courses never collide with them
+    private static final long PRIMARY_COURSE_ID = 900_001;
+    private static final long REPLICA_COURSE_ID = 900_002;
+
+    private final JdbcTemplate primary = new JdbcTemplate(MigratedPostgres.dataSource());
+    private final JdbcTemplate replica = new JdbcTemplate(MigratedPostgres.replicaDataSource());
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseCatalogCache catalogCache;
+
+    @Autowired
+    private CourseSearchIndex searchIndex;
+
+    @DynamicPropertySource
+    static void databases(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MigratedPostgres::jdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("datasource.replica.jdbc-url", MigratedPostgres::replicaJdbcUrl);
+        registry.add("datasource.replica.username", () -> "postgres");
+        registry.add("datasource.replica.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("truncate student_courses, waitlist_entry, student, course");
+        }
+        primary.update("insert into course (id, title, description, enrolled_count) values (?, 'Primary algebra', 'on the primary', 0)",
+                PRIMARY_COURSE_ID);
+        replica.update("insert into course (id, title, description, enrolled_count) values (?, 'Replica botany', 'on the replica', 0)",
+                REPLICA_COURSE_ID);
+        catalogCache.invalidate();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceReadsGoToTheReplica() {
+        List<CourseResponse> page = courseService.getCoursesPage(null, 10).getItems();
+
+        assertThat(page).extracting(CourseResponse::getId).containsExactly(REPLICA_COURSE_ID);
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+
+        courseService.createCourse(CourseRequest.builder().title("Written chemistry").build());
+
+        assertThat(countCourses(primary, "Written chemistry")).isEqualTo(1);
+        assertThat(countCourses(replica, "Written chemistry")).isZero();
+    }
+
+    @Test
+    void catalogIsLoadedFromThePrimary() {
+        List<CourseResponse> catalog = courseService.getCatalog().getCourses();
+
+        assertThat(catalog).extracting(CourseResponse::getId).containsExactly(PRIMARY_COURSE_ID);
+    }
+
+    @Test
+    void searchIndexIsBuiltFromThePrimary() throws InterruptedException {
+        searchIndex.rebuildAsync();
+
+        // The rebuild runs on the index's own thread; wait for it to pick up the seeded course
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (searchIndex.search("algebra", 10).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(searchIndex.search("algebra", 10)).extracting(CourseResponse::getId).containsExactly(PRIMARY_COURSE_ID);
+        assertThat(searchIndex.search("botany", 10)).isEmpty();
+    }
+
+    private static int countCourses(JdbcTemplate database, String title) {
+        Integer count = database.queryForObject("select count(*) from course where title = ?", Integer.class, title);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.school.repository;
+
+import com.example.school.support.MigratedPostgres;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EnrollmentJdbcRepositoryConcurrencyTest {
+
+    private static final long COURSE_ID = 1;
+    private static final int CAPACITY = 25;
+    private static final int STUDENTS = 200;
+    private static final int THREADS = 32;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private EnrollmentJdbcRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = MigratedPostgres.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // Only used to evict cached Student.courses collections after commit
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(org.hibernate.Cache.class)).thenReturn(mock(org.hibernate.Cache.class));
+
+        repository = new EnrollmentJdbcRepository(jdbcTemplate, new NamedParameterJdbcTemplate(dataSource),
+                entityManagerFactory);
+        ReflectionTestUtils.setField(repository, "batchSize", 25);
+
+        jdbcTemplate.update("truncate student_courses, waitlist_entry, student, course");
+        jdbcTemplate.update("insert into course (id, title, capacity, enrolled_count) values (?, 'Capped', ?, 0)",
+                COURSE_ID, CAPACITY);
+        jdbcTemplate.batchUpdate("insert into student (id, name) values (?, ?)",
+                studentIds(), 100, (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "Student " + id);
+                });
+    }
+
+    @Test
+    void concurrentAllocationsNeverOverfillACourse() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (long studentId : studentIds()) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return enroll(studentId);
+            }));
+        }
+        start.countDown();
+
+        int successes = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(60, TimeUnit.SECONDS)) {
+                successes++;
+            }
+        }
+        pool.shutdown();
+
+        Integer enrolledCount = jdbcTemplate.queryForObject(
+                "select enrolled_count from course where id = ?", Integer.class, COURSE_ID);
+        Integer joinRows = jdbcTemplate.queryForObject(
+                "select count(*) from student_courses where course_id = ?", Integer.class, COURSE_ID);
+
+        assertThat(enrolledCount).isLessThanOrEqualTo(CAPACITY);
+        assertThat(joinRows).isEqualTo(successes);
+        assertThat(enrolledCount).isEqualTo(successes);
+        // Demand exceeds capacity and seats are never given back, so every seat is taken
+        assertThat(successes).isEqualTo(CAPACITY);
+    }
+
+    // Same shape as the enrollment service: take the seat, then write the join row, in one transaction
+    private boolean enroll(long studentId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            boolean granted = repository.allocateSeats(List.of(Set.of(COURSE_ID)))[0];
+            return granted && repository.insertEnrollment(studentId, COURSE_ID);
+        }));
+    }
+
+    private static List<Long> studentIds() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= STUDENTS; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
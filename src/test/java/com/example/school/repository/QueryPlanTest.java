@@ -0,0 +1,244 @@
+package com.example.school.repository;
+
+import com.example.school.entity.Student;
+import com.example.school.entity.User;
+import com.example.school.metrics.SqlBudget;
+import com.example.school.metrics.SqlStatementCounter;
+import com.example.school.support.MigratedPostgres;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the hot repository queries use the indexes added in V2 once the tables hold a
+ * realistic amount of data. Each test runs the repository method, picks up the SQL Hibernate
+ * prepared through {@link SqlStatementCounter}, and explains that statement with the call's
+ * arguments bound. The JdbcTemplate repositories bypass Hibernate, so their SQL is explained as written.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+
+    private static final int USERS = 20_000;
+    private static final int COURSES = 2_000;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer() {
+            // An unset budget only counts; nothing is thrown
+            SqlStatementCounter counter = new SqlStatementCounter(new SqlBudget());
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MigratedPostgres::jdbcUrl);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    static void seed() {
+        jdbcTemplate = new JdbcTemplate(MigratedPostgres.dataSource());
+        jdbcTemplate.update("truncate student_courses, waitlist_entry, student, users, course");
+
+        jdbcTemplate.update("insert into users (id, username, password, role) " +
+                "select i, 'user' || i, 'x', 'STUDENT' from generate_series(1, ?) i", USERS);
+        jdbcTemplate.update("insert into student (id, name, owner_id) " +
+                "select i, 'Student ' || i, i from generate_series(1, ?) i", USERS);
+        // Every course title carries a word of its own, so a search matches a handful of rows
+        jdbcTemplate.update("insert into course (id, title, description, capacity, enrolled_count) " +
+                "select i, 'Course topic' || i, 'An introduction to subject' || i, 100, 0 " +
+                "from generate_series(1, ?) i", COURSES);
+        // Five courses per student, spread over the catalog
+        jdbcTemplate.update("insert into student_courses (student_id, course_id) " +
+                "select s, (s * 7 + k * 401) % ? + 1 from generate_series(1, ?) s, generate_series(0, 4) k",
+                COURSES, USERS);
+        jdbcTemplate.update("insert into waitlist_entry (id, course_id, student_id, created_at) " +
+                "select i, i % ? + 1, i, now() - i * interval '1 second' from generate_series(1, ?) i",
+                COURSES, USERS);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void courseRosterReadsTheJoinTableByCourse() {
+        SqlStatementCounter.begin();
+        studentRepository.findRosterAfter(42L, 0L, PageRequest.of(0, 51));
+        String sql = captured("student_courses");
+
+        assertThat(plan(sql, 42, 0, 0, 51)).containsPattern(indexScanOn("idx_student_courses_course_student"));
+    }
+
+    @Test
+    void studentCoursesAreLoadedByStudent() {
+        Student student = studentRepository.findById(1234L).orElseThrow();
+        SqlStatementCounter.begin();
+        Hibernate.initialize(student.getCourses());
+        String sql = captured("student_courses");
+
+        assertThat(plan(sql, 1234)).containsPattern(indexScanOn("uk_student_courses_student_course"));
+    }
+
+    @Test
+    void studentIdIsFoundByOwnerUsername() {
+        // Behind the /me endpoints
+        SqlStatementCounter.begin();
+        studentRepository.findIdByOwnerUsername("user1234");
+        String sql = captured("student");
+
+        assertThat(plan(sql, "user1234")).containsPattern(indexScanOn("idx_student_owner"));
+    }
+
+    @Test
+    void studentIsFoundByOwner() {
+        User owner = entityManager.getReference(User.class, 2345L);
+        SqlStatementCounter.begin();
+        studentRepository.findByOwner(owner);
+        String sql = captured("student");
+
+        assertThat(plan(sql, 2345)).containsPattern(indexScanOn("idx_student_owner"));
+    }
+
+    @Test
+    void studentVersionIsReadByPrimaryKey() {
+        SqlStatementCounter.begin();
+        studentRepository.findVersionById(3456L);
+        String sql = captured("student");
+
+        assertThat(plan(sql, 3456)).containsPattern(indexScanOn("student_pkey"));
+    }
+
+    @Test
+    void studentIdsArePagedByKey() {
+        SqlStatementCounter.begin();
+        studentRepository.findIdsAfter(10_000L, PageRequest.of(0, 100));
+        String sql = captured("student");
+
+        assertThat(plan(sql, 10_000, 0, 100)).containsPattern(indexScanOn("student_pkey"));
+    }
+
+    @Test
+    void coursesArePagedByKey() {
+        SqlStatementCounter.begin();
+        courseRepository.findByIdGreaterThanOrderByIdAsc(1_000L, PageRequest.of(0, 100));
+        String sql = captured("course");
+
+        assertThat(plan(sql, 1_000, 0, 100)).containsPattern(indexScanOn("course_pkey"));
+    }
+
+    @Test
+    void userIsResolvedByUsername() {
+        // The natural-id lookup behind logins and the JWT filter
+        SqlStatementCounter.begin();
+        userRepository.findByUsername("user4567");
+        String sql = captured("username");
+
+        assertThat(plan(sql, "user4567")).containsPattern(indexScanOn("uk_users_username"));
+    }
+
+    @Test
+    void fullTextSearchUsesTheGinIndex() {
+        SqlStatementCounter.begin();
+        courseRepository.searchFullText("topic1234", 20);
+        String sql = captured("to_tsvector");
+
+        assertThat(plan(sql, "topic1234", "topic1234", 20)).containsPattern(indexScanOn("idx_course_search"));
+    }
+
+    @Test
+    void waitlistIsReadInQueueOrder() {
+        // WaitlistJdbcRepository.findWaiting, when promoting a course's queue
+        String sql = "select id, student_id from waitlist_entry where course_id = ? " +
+                "order by created_at, id limit ? for update";
+
+        assertThat(plan(sql, 42, 50)).containsPattern(indexScanOn("idx_waitlist_entry_course_created"));
+    }
+
+    // Plain, index-only or bitmap index scan; the planner picks between them by row estimate
+    private static String indexScanOn(String index) {
+        return "(Index Scan using|Index Only Scan using|Bitmap Index Scan on) " + index + "\\b";
+    }
+
+    // The one statement prepared since begin() that mentions the fragment
+    private static String captured(String fragment) {
+        Set<String> statements = SqlStatementCounter.finish().getDistinctStatements();
+        List<String> matching = statements.stream().filter(sql -> sql.contains(fragment)).toList();
+        assertThat(matching).as("statements mentioning %s in %s", fragment, statements).hasSize(1);
+        return matching.get(0);
+    }
+
+    // Prepares the statement with the JDBC placeholders numbered, then explains an execution with the arguments
+    private static String plan(String sql, Object... arguments) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        assertThat(parameter).as("bind parameters in %s", sql).isEqualTo(arguments.length);
+
+        List<String> values = new ArrayList<>();
+        for (Object argument : arguments) {
+            values.add("'" + argument.toString().replace("'", "''") + "'");
+        }
+        String execute = values.isEmpty() ? "execute plan_query" : "execute plan_query(" + String.join(", ", values) + ")";
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("prepare plan_query as " + numbered);
+                try {
+                    List<String> lines = new ArrayList<>();
+                    try (ResultSet rs = statement.executeQuery("explain " + execute)) {
+                        while (rs.next()) {
+                            lines.add(rs.getString(1));
+                        }
+                    }
+                    return String.join("\n", lines);
+                } finally {
+                    statement.execute("deallocate plan_query");
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.school.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * One embedded PostgreSQL per test JVM, migrated with the application's Flyway scripts. Tests share
+ * the database, so each one clears the tables it writes to. A second, independent database with the
+ * same schema stands in for a read replica where a test needs one.
+ */
+public final class MigratedPostgres {
+
+    private static EmbeddedPostgres postgres;
+    private static EmbeddedPostgres replica;
+
+    private MigratedPostgres() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        postgres = started(postgres);
+        return postgres.getPostgresDatabase();
+    }
+
+    // For tests that boot a Spring context against the same database
+    public static synchronized String jdbcUrl() {
+        postgres = started(postgres);
+        return postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    public static synchronized DataSource replicaDataSource() {
+        replica = started(replica);
+        return replica.getPostgresDatabase();
+    }
+
+    public static synchronized String replicaJdbcUrl() {
+        replica = started(replica);
+        return replica.getJdbcUrl("postgres", "postgres");
+    }
+
+    private static EmbeddedPostgres started(EmbeddedPostgres existing) {
+        if (existing != null) {
+            return existing;
+        }
+        EmbeddedPostgres started;
+        try {
+            started = EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+        }
+        Flyway.configure()
+                .dataSource(started.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                started.close();
+            } catch (IOException ignored) {
+                // the JVM is exiting anyway
+            }
+        }));
+        return started;
+    }
+}